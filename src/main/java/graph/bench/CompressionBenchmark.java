@@ -0,0 +1,64 @@
+package graph.bench;
+
+import graph.dagsp.DAGSP;
+import graph.data.DatasetGenerator;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+import graph.relabel.Relabeling;
+import graph.scc.IterativeTarjanSCC;
+import graph.topo.TopoSort;
+
+/**
+ * Compares the size and traversal speed of CSR and compressed adjacency on large
+ * generated graphs, with shuffled vertex IDs and after a BFS relabeling.
+ *
+ * Usage: graph.bench.CompressionBenchmark [n] [outDegree] [repeat]
+ */
+public class CompressionBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int repeat = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        CsrGraph cyclic = DatasetGenerator.generateSparse(n, degree, 0.05, 42).toCsr();
+        CsrGraph dag = DatasetGenerator.generateSparse(n, degree, 0.0, 43).toCsr();
+        System.out.printf("n = %d, out-degree = %d, weights 1..9%n", n, degree);
+        System.out.printf("%-8s %-11s %10s %10s %10s %10s %12s%n",
+                "order", "layout", "MB", "B/edge", "scc ms", "topo ms", "longest ms");
+        for (String name : new String[]{"none", "bfs"}) {
+            CsrGraph c = name.equals("none") ? cyclic : Relabeling.bfs(cyclic).apply(cyclic);
+            CsrGraph d = name.equals("none") ? dag : Relabeling.bfs(dag).apply(dag);
+            run(name, "csr", c, d, csrBytes(d), repeat);
+            CompressedGraph compressed = CompressedGraph.of(d);
+            run(name, "compressed", CompressedGraph.of(c), compressed, compressed.getPayloadBytes(), repeat);
+        }
+    }
+
+    private static void run(String order, String layout, IntGraph cyclic, IntGraph dag, long bytes, int repeat) {
+        double scc = best(repeat, () -> new IterativeTarjanSCC(cyclic, new Metrics()).findComponents());
+        int[] topoOrder = new TopoSort(dag, new Metrics()).dfs().order;
+        double topo = best(repeat, () -> new TopoSort(dag, new Metrics()).dfs());
+        DAGSP dagsp = new DAGSP(dag, new Metrics());
+        double longest = best(repeat, () -> dagsp.longestPaths(topoOrder[0], topoOrder));
+        System.out.printf("%-8s %-11s %10.1f %10.2f %10.1f %10.1f %12.1f%n", order, layout,
+                bytes / 1e6, (double) bytes / dag.getNumEdges(), scc, topo, longest);
+    }
+
+    private static long csrBytes(CsrGraph g) {
+        return 4L * (g.getN() + 1) + 8L * g.getNumEdges();
+    }
+
+    private static double best(int repeat, Runnable body) {
+        body.run(); // warmup
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < repeat; i++) {
+            long t0 = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,55 @@
+package graph.bench;
+
+import graph.data.DatasetGenerator;
+import graph.exec.DagExecutor;
+import graph.graph.CsrGraph;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+
+/**
+ * Runs a synthetic job per component of a generated graph's condensation DAG,
+ * serially in Tarjan's topological order and on {@link DagExecutor} with an
+ * increasing number of workers. A job spins for a time proportional to the size
+ * of its component, and the executor prioritizes components by that size.
+ *
+ * Usage: graph.bench.ExecutorBenchmark [n] [outDegree] [micros per vertex]
+ */
+public class ExecutorBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long nanosPerVertex = 1000L * (args.length > 2 ? Integer.parseInt(args[2]) : 20);
+
+        CsrGraph g = DatasetGenerator.generateSparse(n, degree, 0.05, 42).toCsr();
+        TarjanSCC.Result scc = new IterativeTarjanSCC(g, new Metrics()).findSCCs();
+        long[] cost = new long[scc.sccCount];
+        int[] sizes = new int[scc.sccCount];
+        long total = 0;
+        for (int c = 0; c < scc.sccCount; c++) {
+            sizes[c] = scc.sccs.get(c).size();
+            cost[c] = nanosPerVertex * sizes[c];
+            total += cost[c];
+        }
+        System.out.printf("%d components, %d DAG edges, %.1f ms of work%n",
+                scc.sccCount, scc.condensation.getNumEdges(), total / 1e6);
+
+        long t0 = System.nanoTime();
+        for (int c : scc.topoOrder) spin(cost[c]);
+        System.out.printf("serial      makespan = %.3f ms%n", (System.nanoTime() - t0) / 1e6);
+
+        int max = Runtime.getRuntime().availableProcessors();
+        for (int workers = 1; workers <= max; workers *= 2) {
+            DagExecutor.Report report = DagExecutor.forCondensation(scc, sizes, workers).execute(c -> spin(cost[c]));
+            System.out.printf("workers %-3d %s%n", workers, report);
+        }
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
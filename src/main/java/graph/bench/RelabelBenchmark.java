@@ -0,0 +1,63 @@
+package graph.bench;
+
+import graph.dagsp.DAGSP;
+import graph.data.DatasetGenerator;
+import graph.graph.CsrGraph;
+import graph.metrics.Metrics;
+import graph.relabel.Relabeling;
+import graph.scc.IterativeTarjanSCC;
+import graph.topo.TopoSort;
+
+/**
+ * Measures Tarjan SCC and DAG longest-path sweeps on a large generated graph with
+ * shuffled vertex IDs, before and after each relabeling.
+ *
+ * Usage: graph.bench.RelabelBenchmark [n] [outDegree] [repeat]
+ */
+public class RelabelBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int repeat = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("Cyclic graph: n = %d, out-degree = %d, 5%% back edges%n", n, degree);
+        CsrGraph cyclic = DatasetGenerator.generateSparse(n, degree, 0.05, 42).toCsr();
+        System.out.printf("%-8s %12s %12s%n", "order", "relabel ms", "scc ms");
+        for (String name : new String[]{"none", "bfs", "rcm", "degree"}) {
+            long t0 = System.nanoTime();
+            CsrGraph g = name.equals("none") ? cyclic : Relabeling.byName(name, cyclic).apply(cyclic);
+            double relabelMs = (System.nanoTime() - t0) / 1e6;
+            double scc = best(repeat, () -> new IterativeTarjanSCC(g, new Metrics()).findSCCs());
+            System.out.printf("%-8s %12.1f %12.1f%n", name, relabelMs, scc);
+        }
+
+        System.out.printf("%nDAG: n = %d, out-degree = %d%n", n, degree);
+        CsrGraph dag = DatasetGenerator.generateSparse(n, degree, 0.0, 43).toCsr();
+        System.out.printf("%-8s %12s %12s %12s%n", "order", "relabel ms", "topo ms", "longest ms");
+        int source = new TopoSort(dag, new Metrics()).dfs().order[0];
+        for (String name : new String[]{"none", "bfs", "rcm", "degree", "topo"}) {
+            long t0 = System.nanoTime();
+            Relabeling r = name.equals("none") ? Relabeling.identity(n) : Relabeling.byName(name, dag);
+            CsrGraph g = name.equals("none") ? dag : r.apply(dag);
+            double relabelMs = (System.nanoTime() - t0) / 1e6;
+            int[] order = new TopoSort(g, new Metrics()).dfs().order;
+            double topo = best(repeat, () -> new TopoSort(g, new Metrics()).dfs());
+            DAGSP dagsp = new DAGSP(g, new Metrics());
+            // Same original source vertex for every relabeling
+            double longest = best(repeat, () -> dagsp.longestPaths(r.toNew(source), order));
+            System.out.printf("%-8s %12.1f %12.1f %12.1f%n", name, relabelMs, topo, longest);
+        }
+    }
+
+    private static double best(int repeat, Runnable body) {
+        body.run(); // warmup
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < repeat; i++) {
+            long t0 = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,54 @@
+package graph.bench;
+
+import graph.dagsp.SccShortestPaths;
+import graph.data.DatasetGenerator;
+import graph.graph.CsrGraph;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+
+/**
+ * Compares the SCC-based shortest-path solver with plain Dijkstra on generated
+ * graphs with an increasing share of back edges (and so larger components).
+ *
+ * Usage: graph.bench.SsspBenchmark [n] [outDegree] [repeat]
+ */
+public class SsspBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int repeat = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("n = %d, out-degree = %d%n", n, degree);
+        System.out.printf("%-10s %12s %14s %12s %12s %12s%n",
+                "back edges", "components", "largest comp.", "scc ms", "hybrid ms", "dijkstra ms");
+        for (double backEdges : new double[]{0.0, 0.01, 0.05, 0.2}) {
+            CsrGraph g = DatasetGenerator.generateSparse(n, degree, backEdges, 42).toCsr();
+            long t0 = System.nanoTime();
+            TarjanSCC.Result scc = new IterativeTarjanSCC(g, new Metrics()).findComponents();
+            double sccMs = (System.nanoTime() - t0) / 1e6;
+            int largest = 0;
+            for (var c : scc.sccs) largest = Math.max(largest, c.size());
+
+            // Source: first vertex of the topologically first component, so most of the graph is reachable
+            int source = scc.sccs.get(scc.topoOrder[0]).get(0);
+            SccShortestPaths solver = new SccShortestPaths(g, scc, new Metrics());
+            double hybrid = best(repeat, () -> solver.distances(source));
+            double dijkstra = best(repeat, () -> SccShortestPaths.dijkstra(g, source, new Metrics()));
+            System.out.printf("%-10.2f %12d %14d %12.1f %12.1f %12.1f%n",
+                    backEdges, scc.sccCount, largest, sccMs, hybrid, dijkstra);
+        }
+    }
+
+    private static double best(int repeat, Runnable body) {
+        body.run(); // warmup
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < repeat; i++) {
+            long t0 = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+}
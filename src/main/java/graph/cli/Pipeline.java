@@ -0,0 +1,679 @@
+package graph.cli;
+
+import graph.cli.PipelineOptions.Stage;
+import graph.dagsp.CriticalPathMethod;
+import graph.dagsp.DAGSP;
+import graph.dagsp.SccShortestPaths;
+import graph.data.GraphLoader;
+import graph.data.Snapshot;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.metrics.Footprint;
+import graph.metrics.MemoryBudget;
+import graph.metrics.Metrics;
+import graph.output.ResultWriter;
+import graph.relabel.Relabeling;
+import graph.scc.Condensation;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.ShardedSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopoSort;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the selected analysis stages (load, SCC, condensation, topological sort,
+ * DAG shortest/longest paths, critical path, CPM schedule) with the chosen algorithm variants.
+ *
+ * The iterative and sharded SCC variants and the stages on the input graph itself
+ * use the primitive representation chosen with --graph (CSR or compressed adjacency).
+ *
+ * With a relabeling selected, every algorithm runs on the relabeled graph and
+ * results are translated back to the original vertex IDs before output.
+ *
+ * With --snapshot, the input graph, SCC result, condensation and distances are
+ * saved to a {@link Snapshot} after the run. A later run on an unchanged input file
+ * (same SHA-256) maps the snapshot instead of loading the file, reuses the saved SCC
+ * result and serves saved distances without recomputing them.
+ *
+ * With --memory, every graph, SCC result and distance array is accounted against a
+ * {@link MemoryBudget} and a build that would not fit fails before it allocates.
+ * When the adjacency-set graph of the recursive SCC does not fit, the iterative
+ * variant is used; when the CSR graph leaves too little room for the DFS working
+ * arrays and result, it is replaced by the compressed representation, and the
+ * condensation is built directly as a CSR graph.
+ *
+ * Every stage is executed warmup + repeat times on fresh state; only the repeats
+ * are measured. Results of the last repetition go to the {@link ResultWriter},
+ * per-stage timings and counters to the log stream.
+ */
+public class Pipeline {
+
+    private final PipelineOptions options;
+    private final ResultWriter out;
+    private final PrintStream log;
+    private final List<StageReport> reports = new ArrayList<>();
+    private final MemoryBudget budget;
+    private String sccVariant;              // options.sccVariant, unless the budget forces another one
+    private String representation;          // options.representation, likewise
+
+    private EdgeList edges;
+    private Graph graph;
+    private CsrGraph csr;
+    private IntGraph primitive;
+    private ExecutorService pool;
+    private Relabeling relabeling;
+    private byte[] inputHash;
+    private Snapshot snapshot;              // fresh snapshot of the input, or null
+    private TarjanSCC.Result finalScc;
+    private IntGraph condensation;          // CSR form of the condensation DAG, once known
+    private final Map<String, int[]> computedDistances = new LinkedHashMap<>();
+
+    /**
+     * One measured execution of a stage.
+     */
+    private interface StageBody<T> {
+        T run(Metrics metrics) throws Exception;
+    }
+
+    public Pipeline(PipelineOptions options, ResultWriter out, PrintStream log) {
+        this.options = options;
+        this.out = out;
+        this.log = log;
+        this.budget = options.memory < 0 ? MemoryBudget.unlimited() : new MemoryBudget(options.memory);
+        this.sccVariant = options.sccVariant;
+        this.representation = options.representation;
+    }
+
+    /**
+     * Runs the pipeline.
+     *
+     * @return one report per executed stage, in execution order
+     * @throws IllegalStateException if a stage cannot run on the input (e.g. topological sort of a cyclic graph)
+     */
+    public List<StageReport> run() throws IOException {
+        Set<Stage> stages = options.resolveStages();
+        if (!stages.equals(options.stages)) {
+            log.println("Stages (with dependencies): " + describe(stages));
+        }
+        if (options.pathVariant.equals("parallel") && options.sources.length > 1) {
+            pool = Executors.newFixedThreadPool(Math.min(options.threads, options.sources.length));
+        }
+        try {
+            runStages(stages);
+            if (options.snapshot != null) saveSnapshot();
+            if (!budget.isUnlimited()) log.println("Memory: " + budget);
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+        return reports;
+    }
+
+    private void runStages(Set<Stage> stages) throws IOException {
+        Path file = Path.of(options.file);
+        if (options.snapshot != null) {
+            openSnapshot(file, Path.of(options.snapshot));
+        }
+        if (snapshot != null) {
+            if (representation.equals("csr")) primitive = snapshot.graph();
+            out.writeGraphInfo(snapshot.graph().getN(), snapshot.graph().getNumEdges());
+        } else {
+            edges = measure("load", options.inputFormat, "edges", m -> {
+                m.start("load", options.inputFormat, 0, 0);
+                EdgeList e = GraphLoader.load(file, options.inputFormat, options.threads, headroom());
+                m.incrementCounter("Edges", e.size());
+                m.setPhaseSize(e.inferVertexCount(), e.size());
+                m.stop();
+                return e;
+            });
+            budget.reserve("edge list", Footprint.of(edges));
+            out.writeGraphInfo(edges.inferVertexCount(), edges.size());
+        }
+
+        if (!options.relabel.equals("none")) {
+            CsrGraph input = csr();
+            relabeling = measure("relabel", options.relabel, "vertices", m -> {
+                m.start();
+                Relabeling r = Relabeling.byName(options.relabel, input);
+                m.incrementCounter("Vertices", r.size());
+                m.stop();
+                return r;
+            });
+            // All later stages see the relabeled graph; results are mapped back before output.
+            budget.reserve("relabeled CSR graph", Footprint.of(input));
+            csr = relabeling.apply(input);
+            budget.release(Footprint.of(input));
+        }
+
+        if (stages.contains(Stage.SCC) && sccVariant.equals("recursive") && graph == null && !budget.isUnlimited()
+                && !budget.fits(Footprint.hashSetGraph(vertexCount(), edgeCount()))) {
+            log.println("Adjacency-set graph of ~" + Footprint.format(Footprint.hashSetGraph(vertexCount(), edgeCount()))
+                    + " does not fit in the memory budget: using --scc=iterative");
+            sccVariant = "iterative";
+        }
+        boolean iterative = !sccVariant.equals("recursive");    // iterative or sharded: on the primitive graph
+        TarjanSCC.Result scc = null;
+        if (stages.contains(Stage.SCC) && snapshot != null && snapshot.hasScc()) {
+            scc = measure("scc", "snapshot", "components", m -> {
+                m.start();
+                TarjanSCC.Result r = snapshot.toSccResult(m);
+                m.incrementCounter("Components", r.sccCount);
+                m.stop();
+                return r;
+            });
+            condensation = snapshot.condensation();
+        } else if (stages.contains(Stage.SCC)) {
+            if (iterative) primitive();
+            else graph();
+            long working = iterative ? Footprint.iterativeScc(primitive.getN(), primitive.cursor().stateSize()) : 0;
+            budget.reserve("SCC working arrays", working);
+            scc = measure("scc", sccVariant, "DFS visits+edges", m -> sccVariant.equals("sharded")
+                    ? new ShardedSCC(primitive, options.workers, workerHeap(), m).findComponents()
+                    : iterative
+                    ? new IterativeTarjanSCC(primitive, m).findComponents()
+                    : new TarjanSCC(graph, m).findComponents());
+            budget.release(working);
+            budget.reserve("SCC result", Footprint.of(scc));
+        }
+        if (stages.contains(Stage.CONDENSE) && condensation == null && iterative && !budget.isUnlimited()) {
+            // Straight to CSR: at most one DAG edge per input edge, no adjacency sets
+            TarjanSCC.Result components = scc;
+            primitive();
+            budget.reserve("condensation", Footprint.csr(scc.sccCount, edgeCount()));
+            CsrGraph dag = measure("condense", "direct-csr", "DAG edges", m -> {
+                m.start();
+                CsrGraph c = Condensation.buildCsr(primitive, components.sccMap, components.sccCount);
+                m.incrementCounter("DAG Edges", c.getNumEdges());
+                m.stop();
+                return c;
+            });
+            budget.release(Footprint.csr(scc.sccCount, edgeCount()));
+            budget.reserve("condensation", Footprint.of(dag));
+            condensation = dag;
+        } else if (stages.contains(Stage.CONDENSE) && condensation == null) {
+            TarjanSCC.Result components = scc;
+            if (iterative) primitive();
+            else graph();
+            Graph dag = measure("condense", iterative ? representation : "graph", "DAG edges", m -> {
+                m.start();
+                Graph c = iterative
+                        ? Condensation.build(primitive, components.sccMap, components.sccCount)
+                        : Condensation.build(graph, components.sccMap, components.sccCount);
+                m.incrementCounter("DAG Edges", c.getNumEdges());
+                m.stop();
+                return c;
+            });
+            scc = scc.withCondensation(dag);
+            condensation = CsrGraph.of(dag);
+            budget.reserve("condensation", Footprint.of(dag) + Footprint.of(condensation));
+        }
+        if (scc != null) {
+            finalScc = relabeling == null ? scc : relabeling.toOriginal(scc);
+            out.writeScc(finalScc);
+        }
+        if (stages.contains(Stage.SSSP)) {
+            runSssp(scc);
+        }
+        // Without SCC the DAG is the (possibly relabeled) input graph itself.
+        Relabeling dagIds = scc == null ? relabeling : null;
+
+        boolean pathStages = stages.contains(Stage.SP) || stages.contains(Stage.LP)
+                || stages.contains(Stage.CRITICAL_PATH) || stages.contains(Stage.SCHEDULE);
+        if (!stages.contains(Stage.TOPO) && !pathStages) {
+            return;
+        }
+        IntGraph dag = scc != null ? condensation : primitive();
+        int[] order;
+        if (scc != null && options.topoVariant.equals("tarjan")) {
+            // Tarjan already emitted the components in reverse topological order
+            order = scc.topoOrder;
+        } else {
+            String variant = options.topoVariant.equals("dfs") ? "dfs" : "kahn";
+            TopoSort.Result topo = measure("topo", variant,
+                    variant.equals("dfs") ? "DFS visits+edges" : "queue pushes+pops",
+                    m -> variant.equals("dfs") ? new TopoSort(dag, m).dfs() : new TopoSort(dag, m).kahn());
+            if (!topo.isAcyclic()) {
+                throw new IllegalStateException("Graph contains a cycle, topological order not possible: "
+                        + abbreviate(topo.describeCycle())
+                        + (scc == null ? "; add the scc stage to work on the condensation DAG" : ""));
+            }
+            order = topo.order;
+        }
+        if (stages.contains(Stage.TOPO)) {
+            out.writeOrder("topoOrder", dagIds == null ? order : dagIds.toOriginalIds(order));
+        }
+
+        if (!pathStages) {
+            return;
+        }
+        if (dag.getN() == 0) {
+            log.println("Empty DAG: path stages skipped");
+            return;
+        }
+        if (stages.contains(Stage.SCHEDULE)) {
+            int[] topoOrder = order;
+            // The condensation used by the path stages has unit weights; CPM needs the durations
+            IntGraph durations = scc != null
+                    ? Condensation.buildWeighted(primitive(), scc.sccMap, scc.sccCount) : dag;
+            CriticalPathMethod.Schedule schedule = measure("schedule", "cpm", "relaxations",
+                    m -> new CriticalPathMethod(durations, m).schedule(topoOrder));
+            // Per original vertex: expand components, then undo the relabeling
+            if (scc != null) schedule = schedule.toOriginal(scc.sccMap, primitive());
+            if (relabeling != null) schedule = relabeling.toOriginal(schedule);
+            log.println("Schedule length: " + schedule.length + ", critical vertices: "
+                    + schedule.criticalVertices.length);
+            out.writeSchedule(schedule);
+        }
+        if (!stages.contains(Stage.SP) && !stages.contains(Stage.LP) && !stages.contains(Stage.CRITICAL_PATH)) {
+            return;
+        }
+        // Sources and targets are input vertices, as for sssp; after SCC the paths run between their components
+        int vertices = scc != null ? finalScc.sccMap.length : dag.getN();
+        int[] sources = options.sources;
+        int[] targets = options.targets != null ? options.targets : new int[]{vertices - 1};
+        checkVertices("sources", sources, vertices);
+        checkVertices("targets", targets, vertices);
+        int[] dagSources = scc != null ? toComponents(finalScc.sccMap, sources) : toDag(dagIds, sources);
+        int[] dagTargets = scc != null ? toComponents(finalScc.sccMap, targets) : toDag(dagIds, targets);
+        int[] topoOrder = order;
+
+        // Distances over the condensation and over the input graph are cached under different keys
+        String dagKey = scc != null ? "components/" : "graph/";
+        if (stages.contains(Stage.SP)) {
+            List<int[]> dist = cachedDistances(dagKey + "shortest", sources);
+            if (dist == null) {
+                budget.reserve("shortest distances", Footprint.distances(dag.getN(), sources.length));
+                dist = measure("sp", options.pathVariant, "relaxations",
+                        m -> runPerSource(m, dagSources, s -> new DAGSP(dag, s.metrics).shortestPaths(s.source, topoOrder)));
+                for (int i = 0; i < sources.length; i++) dist.set(i, fromDag(dagIds, dist.get(i)));
+                cacheDistances(dagKey + "shortest", sources, dist);
+            }
+            for (int i = 0; i < sources.length; i++) {
+                out.writeDistances(label("shortest", sources, i), sources[i], dist.get(i));
+            }
+        }
+        if (stages.contains(Stage.LP)) {
+            List<int[]> dist = cachedDistances(dagKey + "longest", sources);
+            if (dist == null) {
+                budget.reserve("longest distances", Footprint.distances(dag.getN(), sources.length));
+                dist = measure("lp", options.pathVariant, "relaxations",
+                        m -> runPerSource(m, dagSources, s -> new DAGSP(dag, s.metrics).longestPaths(s.source, topoOrder)));
+                for (int i = 0; i < sources.length; i++) dist.set(i, fromDag(dagIds, dist.get(i)));
+                cacheDistances(dagKey + "longest", sources, dist);
+            }
+            for (int i = 0; i < sources.length; i++) {
+                out.writeDistances(label("longest", sources, i), sources[i], dist.get(i));
+            }
+        }
+        if (stages.contains(Stage.CRITICAL_PATH)) {
+            List<List<List<Integer>>> paths = measure("critical-path", options.pathVariant, "relaxations",
+                    m -> runPerSource(m, dagSources, s -> {
+                        DAGSP dagsp = new DAGSP(dag, s.metrics);
+                        List<List<Integer>> perTarget = new ArrayList<>();
+                        for (int t : dagTargets) {
+                            perTarget.add(dagsp.reconstructPath(s.source, t, topoOrder, true));
+                        }
+                        return perTarget;
+                    }));
+            for (int i = 0; i < sources.length; i++) {
+                for (int j = 0; j < targets.length; j++) {
+                    boolean single = sources.length == 1 && targets.length == 1;
+                    out.writeOrder(single ? "criticalPath" : "criticalPath@" + sources[i] + "->" + targets[j],
+                            dagIds == null ? paths.get(i).get(j) : dagIds.toOriginalIds(paths.get(i).get(j)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Exact shortest distances between vertices of the input graph, from the
+     * original-ID sources, with the SCC-based solver or plain Dijkstra.
+     */
+    private void runSssp(TarjanSCC.Result scc) throws IOException {
+        IntGraph g = primitive();
+        int[] sources = options.sources;
+        for (int v : sources) {
+            if (v < 0 || v >= g.getN())
+                throw new IllegalArgumentException("sources vertex " + v + " outside graph of " + g.getN() + " vertices");
+        }
+        List<int[]> dist = cachedDistances("graph/distances", sources);
+        if (dist == null) {
+            int[] graphSources = toDag(relabeling, sources);
+            boolean hybrid = options.ssspVariant.equals("hybrid");
+            budget.reserve("shortest distances", Footprint.distances(g.getN(), sources.length));
+            dist = measure("sssp", options.ssspVariant, "relaxations+pops",
+                    m -> runPerSource(m, graphSources, s -> hybrid
+                            ? new SccShortestPaths(g, scc, s.metrics).distances(s.source)
+                            : SccShortestPaths.dijkstra(g, s.source, s.metrics)));
+            for (int i = 0; i < sources.length; i++) dist.set(i, fromDag(relabeling, dist.get(i)));
+            cacheDistances("graph/distances", sources, dist);
+        }
+        for (int i = 0; i < sources.length; i++) {
+            out.writeDistances(label("distances", sources, i), sources[i], dist.get(i));
+        }
+    }
+
+    /**
+     * Hashes the input file and maps the snapshot if it exists and was built from
+     * the same input. A stale, unreadable or missing snapshot is reported and rebuilt.
+     */
+    private void openSnapshot(Path file, Path snapshotFile) throws IOException {
+        inputHash = measure("hash-input", "sha-256", "bytes", m -> {
+            m.start();
+            byte[] hash = Snapshot.hashFile(file);
+            m.incrementCounter("Bytes", (int) Math.min(Integer.MAX_VALUE, Files.size(file)));
+            m.stop();
+            return hash;
+        });
+        if (!Files.exists(snapshotFile)) {
+            log.println("No snapshot at " + snapshotFile + ": it will be created");
+            return;
+        }
+        Snapshot s;
+        try {
+            s = measure("snapshot", "mmap", "bytes", m -> {
+                m.start();
+                Snapshot mapped = Snapshot.open(snapshotFile);
+                // A corrupt graph or SCC section discards the whole snapshot; a corrupt
+                // distance array is only recomputed (see cachedDistances)
+                mapped.verifyStructure();
+                m.incrementCounter("Bytes", (int) Math.min(Integer.MAX_VALUE, Files.size(snapshotFile)));
+                m.stop();
+                return mapped;
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.println("Ignoring snapshot: " + e.getMessage());
+            return;
+        }
+        if (s.isFresh(inputHash)) {
+            snapshot = s;
+        } else {
+            log.println("Snapshot is stale (input file changed): it will be rebuilt");
+        }
+    }
+
+    /**
+     * Writes the snapshot if this run computed anything it does not hold yet.
+     */
+    private void saveSnapshot() throws IOException {
+        if (snapshot != null && computedDistances.isEmpty() && (finalScc == null || snapshot.hasScc()
+                && (condensation == null || snapshot.condensation() != null))) {
+            return;
+        }
+
+        IntGraph input = snapshot != null ? snapshot.graph() : primitive();
+        TarjanSCC.Result scc = finalScc != null || snapshot == null || !snapshot.hasScc()
+                ? finalScc : snapshot.toSccResult(new Metrics());
+        IntGraph dag = condensation != null || snapshot == null ? condensation : snapshot.condensation();
+        Map<String, int[]> distances = new LinkedHashMap<>();
+        if (snapshot != null) {
+            for (String key : snapshot.distanceKeys()) {
+                try {
+                    distances.put(key, snapshot.distances(key));
+                } catch (UncheckedIOException e) {
+                    log.println("Dropping from snapshot: " + e.getMessage());
+                }
+            }
+        }
+        distances.putAll(computedDistances);
+        measure("snapshot-save", "binary", "distance arrays", m -> {
+            m.start();
+            Snapshot.write(Path.of(options.snapshot), inputHash, input, scc, dag, distances);
+            m.incrementCounter("Distance Arrays", distances.size());
+            m.stop();
+            return null;
+        });
+    }
+
+    /**
+     * @return distances saved in the snapshot under key@source for every source, or
+     * null if any is missing or corrupt; recomputed distances replace corrupt ones on save
+     */
+    private List<int[]> cachedDistances(String key, int[] sources) {
+        if (snapshot == null) return null;
+        List<int[]> cached = new ArrayList<>();
+        for (int s : sources) {
+            int[] d;
+            try {
+                d = snapshot.distances(key + "@" + s);
+            } catch (UncheckedIOException e) {
+                log.println("Ignoring " + key + " from snapshot: " + e.getMessage());
+                return null;
+            }
+            if (d == null) return null;
+            cached.add(d);
+        }
+        log.println(key + " served from snapshot");
+        return cached;
+    }
+
+    private void cacheDistances(String key, int[] sources, List<int[]> dist) {
+        if (options.snapshot == null) return;
+        for (int i = 0; i < sources.length; i++) computedDistances.put(key + "@" + sources[i], dist.get(i));
+    }
+
+    /**
+     * Per-source work of a path stage, with its own metrics.
+     */
+    private static final class SourceRun {
+        final int source;
+        final Metrics metrics = new Metrics();
+
+        SourceRun(int source) {
+            this.source = source;
+        }
+    }
+
+    private interface SourceBody<R> {
+        R run(SourceRun run) throws Exception;
+    }
+
+    /**
+     * Runs body once per source, sequentially or on the thread pool, and adds the
+     * per-source counters to m. The stage time is the wall time of all sources.
+     */
+    private <R> List<R> runPerSource(Metrics m, int[] sources, SourceBody<R> body) throws Exception {
+        List<R> results = new ArrayList<>();
+        SourceRun[] runs = new SourceRun[sources.length];
+        for (int i = 0; i < sources.length; i++) runs[i] = new SourceRun(sources[i]);
+
+        m.start();
+        if (pool == null) {
+            for (SourceRun run : runs) results.add(body.run(run));
+        } else {
+            List<Future<R>> futures = new ArrayList<>();
+            for (SourceRun run : runs) futures.add(pool.submit(() -> body.run(run)));
+            for (Future<R> f : futures) results.add(f.get());
+        }
+        m.stop();
+        for (SourceRun run : runs) m.incrementCounter("Relaxations", run.metrics.getCounter());
+        return results;
+    }
+
+    private <T> T measure(String stage, String variant, String counterName, StageBody<T> body) throws IOException {
+        try {
+            for (int i = 0; i < options.warmup; i++) {
+                body.run(new Metrics());
+            }
+            T result = null;
+            long best = Long.MAX_VALUE;
+            long total = 0;
+            long counter = 0;
+            for (int i = 0; i < options.repeat; i++) {
+                Metrics m = new Metrics();
+                result = body.run(m);
+                best = Math.min(best, m.getElapsedTime());
+                total += m.getElapsedTime();
+                counter = m.getCounter();
+            }
+            StageReport report = new StageReport(stage, variant, counterName, options.repeat, best, total, counter);
+            reports.add(report);
+            log.println(report);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Stage " + stage + " failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stage " + stage + " interrupted", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Stage " + stage + " failed", e);
+        }
+    }
+
+    /**
+     * @return a budget holding what is left of the run's budget, for the fail-fast
+     * checks of a measured build; the build runs warmup + repeat times, so its result
+     * is reserved in the run's budget once, after the stage
+     */
+    private MemoryBudget headroom() {
+        return budget.isUnlimited() ? MemoryBudget.unlimited() : new MemoryBudget(budget.remaining());
+    }
+
+    /**
+     * @return heap of each --scc=sharded worker: an equal share of what is left of the
+     * budget, or -1 without --memory so that every worker is sized from its shard
+     */
+    private long workerHeap() {
+        return budget.isUnlimited() ? -1 : Math.max(1, budget.remaining() / options.workers);
+    }
+
+    private int vertexCount() {
+        if (primitive != null) return primitive.getN();
+        if (csr != null) return csr.getN();
+        return edges != null ? edges.inferVertexCount() : snapshot.graph().getN();
+    }
+
+    private long edgeCount() {
+        if (primitive != null) return primitive.getNumEdges();
+        if (csr != null) return csr.getNumEdges();
+        return edges != null ? edges.size() : snapshot.graph().getNumEdges();
+    }
+
+    private Graph graph() throws IOException {
+        if (graph == null) {
+            graph = measure("build-graph", "hashset", "edges", m -> {
+                m.start();
+                Graph g = relabeling != null || edges == null
+                        ? csr().toGraph()
+                        : edges.toGraph(edges.inferVertexCount(), headroom());
+                m.incrementCounter("Edges", g.getNumEdges());
+                m.stop();
+                return g;
+            });
+            budget.reserve("adjacency-set graph", Footprint.of(graph));
+        }
+        return graph;
+    }
+
+    private CsrGraph csr() throws IOException {
+        if (csr == null) {
+            if (edges == null && snapshot == null)
+                throw new IllegalStateException("CSR graph was dropped to fit the memory budget");
+            csr = measure("build-csr", "csr", "edges", m -> {
+                m.start();
+                // Without a parsed edge list the graph comes from the snapshot
+                CsrGraph g = edges != null
+                        ? edges.toCsr(edges.inferVertexCount(), headroom())
+                        : snapshot.graph().toCsr();
+                m.incrementCounter("Edges", g.getNumEdges());
+                m.stop();
+                return g;
+            });
+            budget.reserve("CSR graph", Footprint.of(csr));
+            if (!budget.isUnlimited() && edges != null) {
+                // Every later structure is built from the CSR graph
+                budget.release(Footprint.of(edges));
+                edges = null;
+            }
+        }
+        return csr;
+    }
+
+    /**
+     * @return the (possibly relabeled) input graph in the representation selected with --graph
+     */
+    private IntGraph primitive() throws IOException {
+        if (primitive == null) {
+            CsrGraph input = csr();
+            boolean switched = representation.equals("csr") && !budget.isUnlimited()
+                    && !budget.fits(Footprint.iterativeScc(input.getN(), 1) + Footprint.sccResult(input.getN()));
+            if (switched) {
+                log.println("CSR graph leaves too little of the memory budget for the SCC working arrays"
+                        + " and result: using --graph=compressed");
+                representation = "compressed";
+            }
+            primitive = !representation.equals("compressed") ? input
+                    : measure("compress", "delta-varint", "edges", m -> {
+                m.start();
+                CompressedGraph g = CompressedGraph.of(input, headroom());
+                m.incrementCounter("Edges", g.getNumEdges());
+                m.stop();
+                return g;
+            });
+            if (primitive != input) budget.reserve("compressed graph", Footprint.of(primitive));
+            if (switched) {
+                budget.release(Footprint.of(input));
+                csr = null;
+            }
+        }
+        return primitive;
+    }
+
+    private static int[] toDag(Relabeling ids, int[] vertices) {
+        if (ids == null) return vertices;
+        int[] mapped = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++) mapped[i] = ids.toNew(vertices[i]);
+        return mapped;
+    }
+
+    private static int[] toComponents(int[] sccMap, int[] vertices) {
+        int[] components = new int[vertices.length];
+        for (int i = 0; i < vertices.length; i++) components[i] = sccMap[vertices[i]];
+        return components;
+    }
+
+    private static int[] fromDag(Relabeling ids, int[] values) {
+        return ids == null ? values : ids.toOriginalIndex(values);
+    }
+
+    private static String abbreviate(String s) {
+        return s.length() <= 200 ? s : s.substring(0, 200) + " ...";
+    }
+
+    private static String label(String name, int[] sources, int i) {
+        return sources.length == 1 ? name : name + "@" + sources[i];
+    }
+
+    private static void checkVertices(String what, int[] vertices, int n) {
+        for (int v : vertices) {
+            if (v < 0 || v >= n)
+                throw new IllegalArgumentException(what + " vertex " + v + " outside graph of " + n + " vertices");
+        }
+    }
+
+    private static String describe(Set<Stage> stages) {
+        List<String> ids = new ArrayList<>();
+        for (Stage s : stages) ids.add(s.id);
+        return String.join(",", ids);
+    }
+}
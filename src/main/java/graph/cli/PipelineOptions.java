@@ -0,0 +1,204 @@
+package graph.cli;
+
+import graph.metrics.MemoryBudget;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Command-line options of the analysis pipeline.
+ *
+ * <pre>
+ * graph.Main [FILE] [--input-format=auto|json|ndjson|text] [--relabel=none|bfs|rcm|degree|topo]
+ *            [--graph=csr|compressed]
+ *            [--stages=all|scc,condense,sssp,topo,sp,lp,critical-path,schedule]
+ *            [--scc=recursive|iterative|sharded] [--workers=N] [--topo=tarjan|kahn|dfs]
+ *            [--paths=sequential|parallel]
+ *            [--sssp=hybrid|dijkstra]
+ *            [--sources=0,5] [--targets=7,9]
+ *            [--warmup=N] [--repeat=N] [--threads=N] [--snapshot=PATH] [--memory=SIZE]
+ *            [--output=console|summary|json:PATH|binary:PATH]
+ * </pre>
+ *
+ * Stages that later stages depend on are added automatically (see {@link #resolveStages()}).
+ */
+public class PipelineOptions {
+
+    /**
+     * Pipeline stages in execution order.
+     */
+    public enum Stage {
+        SCC("scc"),
+        CONDENSE("condense"),
+        SSSP("sssp"),
+        TOPO("topo"),
+        SP("sp"),
+        LP("lp"),
+        CRITICAL_PATH("critical-path"),
+        SCHEDULE("schedule");
+
+        public final String id;
+
+        Stage(String id) {
+            this.id = id;
+        }
+
+        public static Stage parse(String id) {
+            for (Stage s : values()) {
+                if (s.id.equals(id)) return s;
+            }
+            throw new IllegalArgumentException("Unknown stage: " + id);
+        }
+    }
+
+    public static final List<String> SCC_VARIANTS = List.of("recursive", "iterative", "sharded");
+    public static final List<String> TOPO_VARIANTS = List.of("tarjan", "kahn", "dfs");
+    public static final List<String> RELABELINGS = List.of("none", "bfs", "rcm", "degree", "topo");
+    public static final List<String> REPRESENTATIONS = List.of("csr", "compressed");
+    public static final List<String> PATH_VARIANTS = List.of("sequential", "parallel");
+    public static final List<String> SSSP_VARIANTS = List.of("hybrid", "dijkstra");
+
+    public String file = "data/small_1.json";
+    public String inputFormat = "auto";
+    public String relabel = "none";
+    public String representation = "csr";
+    public Set<Stage> stages = EnumSet.allOf(Stage.class);
+    public String sccVariant = "recursive";
+    public int workers = 2;        // worker processes of the sharded SCC variant
+    public String topoVariant = "tarjan";
+    public String pathVariant = "sequential";
+    public String ssspVariant = "hybrid";
+    public int[] sources = {0};
+    public int[] targets;          // null = last vertex; sources and targets are input vertices
+    public int warmup = 0;
+    public int repeat = 1;
+    public int threads = Runtime.getRuntime().availableProcessors();
+    public String output = "console";
+    public String snapshot;        // null = no snapshot
+    public long memory = -1;       // bytes, -1 = unlimited
+    public boolean help;
+
+    /**
+     * Parses command-line arguments.
+     *
+     * @throws IllegalArgumentException on unknown options or invalid values
+     */
+    public static PipelineOptions parse(String[] args) {
+        PipelineOptions o = new PipelineOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                o.file = arg;
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "help": o.help = true; break;
+                case "input-format": o.inputFormat = value; break;
+                case "relabel": o.relabel = variant(key, value, RELABELINGS); break;
+                case "graph": o.representation = variant(key, value, REPRESENTATIONS); break;
+                case "stages": o.stages = parseStages(value); break;
+                case "scc": o.sccVariant = variant(key, value, SCC_VARIANTS); break;
+                case "workers": o.workers = parseCount(key, value, 1); break;
+                case "topo": o.topoVariant = variant(key, value, TOPO_VARIANTS); break;
+                case "paths": o.pathVariant = variant(key, value, PATH_VARIANTS); break;
+                case "sssp": o.ssspVariant = variant(key, value, SSSP_VARIANTS); break;
+                case "sources": o.sources = parseInts(key, value); break;
+                case "targets": o.targets = parseInts(key, value); break;
+                case "warmup": o.warmup = parseCount(key, value, 0); break;
+                case "repeat": o.repeat = parseCount(key, value, 1); break;
+                case "threads": o.threads = parseCount(key, value, 1); break;
+                case "output": o.output = value; break;
+                case "snapshot": o.snapshot = value; break;
+                case "memory": o.memory = MemoryBudget.parseSize(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (o.snapshot != null && !o.relabel.equals("none"))
+            throw new IllegalArgumentException("--snapshot cannot be combined with --relabel");
+        return o;
+    }
+
+    /**
+     * Adds the stages required by the selected ones. Path stages (including schedule) run on the condensation
+     * DAG after SCC, taking the topological order Tarjan already produced (topo variant
+     * "tarjan"); without SCC they need a topological sort of the input graph.
+     * A topological order after SCC is computed on the condensation DAG.
+     * The hybrid sssp variant needs the SCC decomposition of the input graph.
+     *
+     * @return the stages to run, including dependencies
+     */
+    public Set<Stage> resolveStages() {
+        Set<Stage> resolved = EnumSet.copyOf(stages);
+        if (resolved.contains(Stage.SP) || resolved.contains(Stage.LP) || resolved.contains(Stage.CRITICAL_PATH)
+                || resolved.contains(Stage.SCHEDULE)) {
+            resolved.add(resolved.contains(Stage.SCC) ? Stage.CONDENSE : Stage.TOPO);
+        }
+        if (resolved.contains(Stage.SSSP) && ssspVariant.equals("hybrid")) {
+            resolved.add(Stage.SCC);
+        }
+        if (resolved.contains(Stage.TOPO) && resolved.contains(Stage.SCC)) {
+            resolved.add(Stage.CONDENSE);
+        }
+        if (resolved.contains(Stage.CONDENSE)) {
+            resolved.add(Stage.SCC);
+        }
+        return resolved;
+    }
+
+    public static String usage() {
+        return "Usage: graph.Main [FILE] [--input-format=auto|json|ndjson|text]"
+                + " [--relabel=" + String.join("|", RELABELINGS) + "]\n"
+                + "       [--graph=" + String.join("|", REPRESENTATIONS) + "]\n"
+                + "       [--stages=all|scc,condense,sssp,topo,sp,lp,critical-path,schedule]\n"
+                + "       [--scc=" + String.join("|", SCC_VARIANTS) + "] [--workers=N]"
+                + " [--topo=" + String.join("|", TOPO_VARIANTS) + "] [--paths=" + String.join("|", PATH_VARIANTS) + "]\n"
+                + "       [--sssp=" + String.join("|", SSSP_VARIANTS) + "]\n"
+                + "       [--sources=0,5] [--targets=7,9] [--warmup=N] [--repeat=N] [--threads=N]\n"
+                + "       [--snapshot=PATH] [--memory=SIZE]\n"
+                + "       [--output=console|summary|json:PATH|binary:PATH]";
+    }
+
+    private static Set<Stage> parseStages(String value) {
+        if (value.equals("all")) return EnumSet.allOf(Stage.class);
+        Set<Stage> stages = EnumSet.noneOf(Stage.class);
+        for (String id : value.split(",")) {
+            if (!id.isBlank()) stages.add(Stage.parse(id.trim()));
+        }
+        if (stages.isEmpty()) throw new IllegalArgumentException("No stages selected");
+        return stages;
+    }
+
+    private static String variant(String key, String value, List<String> allowed) {
+        if (!allowed.contains(value))
+            throw new IllegalArgumentException("--" + key + " must be one of " + allowed + ", got: " + value);
+        return value;
+    }
+
+    private static int[] parseInts(String key, String value) {
+        List<Integer> list = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (part.isBlank()) continue;
+            try {
+                list.add(Integer.parseInt(part.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--" + key + " expects comma-separated vertices, got: " + value);
+            }
+        }
+        if (list.isEmpty()) throw new IllegalArgumentException("--" + key + " is empty");
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int parseCount(String key, String value, int min) {
+        try {
+            int v = Integer.parseInt(value);
+            if (v >= min) return v;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--" + key + " must be an integer >= " + min + ", got: " + value);
+    }
+}
@@ -0,0 +1,40 @@
+package graph.cli;
+
+/**
+ * Timing and counter summary of one pipeline stage over all measured repetitions.
+ */
+public class StageReport {
+
+    public final String stage;
+    public final String variant;
+    public final String counterName;
+    public final int runs;
+    public final long bestNanos;
+    public final long totalNanos;
+    public final long counter;
+
+    public StageReport(String stage, String variant, String counterName,
+                       int runs, long bestNanos, long totalNanos, long counter) {
+        this.stage = stage;
+        this.variant = variant;
+        this.counterName = counterName;
+        this.runs = runs;
+        this.bestNanos = bestNanos;
+        this.totalNanos = totalNanos;
+        this.counter = counter;
+    }
+
+    public double bestMillis() {
+        return bestNanos / 1e6;
+    }
+
+    public double meanMillis() {
+        return runs == 0 ? 0 : totalNanos / 1e6 / runs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-14s %-11s best = %9.3f ms, mean = %9.3f ms (%d run%s), %s = %d",
+                stage, variant, bestMillis(), meanMillis(), runs, runs == 1 ? "" : "s", counterName, counter);
+    }
+}
@@ -0,0 +1,196 @@
+package graph.dagsp;
+
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Critical path method (CPM) over a DAG whose vertices are events and whose edge
+ * weights are activity durations.
+ *
+ * Unlike {@link DAGSP#longestPaths(int, int[])}, the schedule is not tied to one
+ * source: every vertex without predecessors starts at time 0, and the project
+ * ends when the last vertex is reached.
+ *
+ * - forward pass (topological order):  earliest[v] = max(earliest[u] + w(u, v))
+ * - backward pass (reverse order):     latest[u]   = min(latest[v] - w(u, v)),
+ *                                      latest = project length for vertices without successors
+ * - slack[v] = latest[v] - earliest[v]; vertices with zero slack are critical, and so
+ *   are the edges between critical vertices with earliest[u] + w = earliest[v].
+ *
+ * Both passes read only the outgoing edges and primitive arrays.
+ */
+public class CriticalPathMethod {
+
+    private final IntGraph dag;
+    private final Metrics metrics;
+
+    /**
+     * The DAG is copied into CSR layout once, outside of the measured time.
+     */
+    public CriticalPathMethod(Graph dag, Metrics metrics) {
+        this(CsrGraph.of(dag), metrics);
+    }
+
+    public CriticalPathMethod(IntGraph dag, Metrics metrics) {
+        this.dag = dag;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Computes earliest/latest start times, slack and the critical vertices and edges.
+     *
+     * @param topoOrder topological order of the DAG, e.g. {@code TarjanSCC.Result.topoOrder}
+     * @return schedule of every vertex
+     */
+    public Schedule schedule(int[] topoOrder) {
+        metrics.start("cpm", "schedule", dag.getN(), dag.getNumEdges());
+
+        int n = dag.getN();
+        int[] earliest = new int[n];
+        EdgeCursor edges = dag.cursor();
+
+        // Forward pass: all vertices start at 0 unless a predecessor pushes them later
+        for (int u : topoOrder) {
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                if (earliest[v] < earliest[u] + edges.weight()) {
+                    earliest[v] = earliest[u] + edges.weight();
+                    metrics.incrementCounter("Relaxations");
+                }
+            }
+        }
+        int length = 0;
+        for (int t : earliest) length = Math.max(length, t);
+
+        // Backward pass: successors come later in topological order, so they are final
+        int[] latest = new int[n];
+        int[] slack = new int[n];
+        int criticalCount = 0;
+        for (int i = topoOrder.length - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            int l = length;
+            edges.reset(u);
+            while (edges.next()) {
+                int candidate = latest[edges.target()] - edges.weight();
+                if (candidate < l) {
+                    l = candidate;
+                    metrics.incrementCounter("Relaxations");
+                }
+            }
+            latest[u] = l;
+            slack[u] = l - earliest[u];
+            if (slack[u] == 0) criticalCount++;
+        }
+
+        int[] critical = new int[criticalCount];
+        EdgeList criticalEdges = new EdgeList(criticalCount);
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            if (slack[u] != 0) continue;
+            critical[k++] = u;
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                if (slack[v] == 0 && earliest[u] + edges.weight() == earliest[v]) {
+                    criticalEdges.add(u, v, edges.weight());
+                }
+            }
+        }
+
+        metrics.stop();
+        return new Schedule(length, earliest, latest, slack, critical, criticalEdges);
+    }
+
+    /**
+     * Outcome of the critical path method.
+     */
+    public static class Schedule {
+        /** Project length: the latest earliest-start time. */
+        public final int length;
+        public final int[] earliestStart;
+        public final int[] latestStart;
+        public final int[] slack;
+        /** Vertices with zero slack, ascending. */
+        public final int[] criticalVertices;
+        /** Edges on a critical path, with their weights. */
+        public final EdgeList criticalEdges;
+
+        public Schedule(int length, int[] earliestStart, int[] latestStart, int[] slack,
+                        int[] criticalVertices, EdgeList criticalEdges) {
+            this.length = length;
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.slack = slack;
+            this.criticalVertices = criticalVertices;
+            this.criticalEdges = criticalEdges;
+        }
+
+        public boolean isCritical(int v) {
+            return slack[v] == 0;
+        }
+
+        /**
+         * Expands a schedule computed on the condensation DAG to the vertices of the
+         * original graph: every vertex takes the times of its component. The DAG must
+         * carry the durations of the original edges, as built by
+         * {@code Condensation.buildWeighted}. Critical edges are the original edges
+         * between two components that are joined by a critical condensation edge and
+         * are tight themselves (earliest[u] + w = earliest[v]), with their original
+         * weight; edges inside a component are not part of the schedule.
+         *
+         * @param sccMap component index of every original vertex
+         * @param graph  original graph
+         * @return schedule indexed by original vertex
+         */
+        public Schedule toOriginal(int[] sccMap, IntGraph graph) {
+            int n = sccMap.length;
+            int[] earliest = new int[n];
+            int[] latest = new int[n];
+            int[] slackByVertex = new int[n];
+            int criticalCount = 0;
+            for (int v = 0; v < n; v++) {
+                int c = sccMap[v];
+                earliest[v] = earliestStart[c];
+                latest[v] = latestStart[c];
+                slackByVertex[v] = slack[c];
+                if (slack[c] == 0) criticalCount++;
+            }
+            int[] critical = new int[criticalCount];
+            int k = 0;
+            for (int v = 0; v < n; v++) {
+                if (slackByVertex[v] == 0) critical[k++] = v;
+            }
+
+            // Critical condensation edges as sorted (from, to) keys for lookup
+            long[] keys = new long[criticalEdges.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key(criticalEdges.getFrom(i), criticalEdges.getTo(i));
+            }
+            Arrays.sort(keys);
+            EdgeList edges = new EdgeList(criticalEdges.size());
+            EdgeCursor cursor = graph.cursor();
+            for (int u : critical) {
+                cursor.reset(u);
+                while (cursor.next()) {
+                    int v = cursor.target();
+                    if (sccMap[u] != sccMap[v] && earliest[u] + cursor.weight() == earliest[v]
+                            && Arrays.binarySearch(keys, key(sccMap[u], sccMap[v])) >= 0) {
+                        edges.add(u, v, cursor.weight());
+                    }
+                }
+            }
+            return new Schedule(length, earliest, latest, slackByVertex, critical, edges);
+        }
+
+        private static long key(int from, int to) {
+            return ((long) from << 32) | to;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package graph.dagsp;
 
-import graph.graph.Edge;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
 import graph.graph.Graph;
+import graph.graph.IntGraph;
 import graph.metrics.Metrics;
 
 import java.util.*;
@@ -12,16 +14,25 @@ import java.util.*;
  * Edge weights are treated as durations (positive integers).
  */
 public class DAGSP {
-    private final Graph dag;
+    private final IntGraph dag;
     private final Metrics metrics;
 
     /**
      * Constructor for DAGShortestPath.
+     * The DAG is copied into CSR layout once, outside of the measured time.
      *
      * @param dag     a directed acyclic graph
      * @param metrics metrics tracker for algorithm performance
      */
     public DAGSP(Graph dag, Metrics metrics) {
+        this(CsrGraph.of(dag), metrics);
+    }
+
+    /**
+     * @param dag     a directed acyclic graph in CSR or compressed layout
+     * @param metrics metrics tracker for algorithm performance
+     */
+    public DAGSP(IntGraph dag, Metrics metrics) {
         this.dag = dag;
         this.metrics = metrics;
     }
@@ -34,20 +45,37 @@ public class DAGSP {
      * @return an array of shortest path distances
      */
     public int[] shortestPaths(int source, List<Integer> topoOrder) {
-        metrics.start();
+        return shortestPaths(source, toArray(topoOrder));
+    }
+
+    /**
+     * Computes the shortest path distances from a single source vertex.
+     *
+     * @param source    the starting vertex
+     * @param topoOrder precomputed topological order of the DAG, e.g. {@code TarjanSCC.Result.topoOrder}
+     * @return an array of shortest path distances (Integer.MAX_VALUE = unreachable)
+     */
+    public int[] shortestPaths(int source, int[] topoOrder) {
+        metrics.start("dagsp", "shortest", dag.getN(), dag.getNumEdges());
 
         int n = dag.getN();
         int[] dist = new int[n];
         Arrays.fill(dist, Integer.MAX_VALUE);
+        if (n == 0) {
+            metrics.stop();
+            return dist;
+        }
         dist[source] = 0;
+        EdgeCursor edges = dag.cursor();
 
         // Process vertices in topological order
         for (int u : topoOrder) {
             if (dist[u] == Integer.MAX_VALUE) continue;
 
-            for (Edge edge : dag.getNeighbors(u)) {
-                int v = edge.getTo();
-                int w = edge.getWeight();
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                int w = edges.weight();
                 if (dist[v] > dist[u] + w) {
                     dist[v] = dist[u] + w;
                     metrics.incrementCounter("Relaxations");
@@ -67,19 +95,36 @@ public class DAGSP {
      * @return an array of longest path distances
      */
     public int[] longestPaths(int source, List<Integer> topoOrder) {
-        metrics.start();
+        return longestPaths(source, toArray(topoOrder));
+    }
+
+    /**
+     * Computes the longest path distances from a single source vertex.
+     *
+     * @param source    the starting vertex
+     * @param topoOrder precomputed topological order of the DAG, e.g. {@code TarjanSCC.Result.topoOrder}
+     * @return an array of longest path distances (Integer.MIN_VALUE = unreachable)
+     */
+    public int[] longestPaths(int source, int[] topoOrder) {
+        metrics.start("dagsp", "longest", dag.getN(), dag.getNumEdges());
 
         int n = dag.getN();
         int[] dist = new int[n];
         Arrays.fill(dist, Integer.MIN_VALUE);
+        if (n == 0) {
+            metrics.stop();
+            return dist;
+        }
         dist[source] = 0;
+        EdgeCursor edges = dag.cursor();
 
         for (int u : topoOrder) {
             if (dist[u] == Integer.MIN_VALUE) continue;
 
-            for (Edge edge : dag.getNeighbors(u)) {
-                int v = edge.getTo();
-                int w = edge.getWeight();
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                int w = edges.weight();
                 if (dist[v] < dist[u] + w) {
                     dist[v] = dist[u] + w;
                     metrics.incrementCounter("Relaxations");
@@ -101,17 +146,32 @@ public class DAGSP {
      * @return list of vertices representing the optimal path
      */
     public List<Integer> reconstructPath(int source, int target, List<Integer> topoOrder, boolean useLongest) {
+        return reconstructPath(source, target, toArray(topoOrder), useLongest);
+    }
+
+    /**
+     * Reconstructs one optimal path from source to target.
+     *
+     * @param source     starting vertex
+     * @param target     target vertex
+     * @param topoOrder  topological order of the DAG
+     * @param useLongest if true, reconstructs the longest path; otherwise shortest
+     * @return list of vertices representing the optimal path, empty if target is unreachable
+     */
+    public List<Integer> reconstructPath(int source, int target, int[] topoOrder, boolean useLongest) {
         int n = dag.getN();
         int[] dist = useLongest ? longestPaths(source, topoOrder) : shortestPaths(source, topoOrder);
+        int unreachable = useLongest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
         int[] parent = new int[n];
         Arrays.fill(parent, -1);
 
+        EdgeCursor edges = dag.cursor();
         for (int u : topoOrder) {
-            for (Edge edge : dag.getNeighbors(u)) {
-                int v = edge.getTo();
-                int w = edge.getWeight();
-
-                if (dist[u] != Integer.MAX_VALUE && dist[v] == dist[u] + w) {
+            if (dist[u] == unreachable) continue;
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                if (dist[v] == dist[u] + edges.weight()) {
                     parent[v] = u;
                 }
             }
@@ -135,6 +195,17 @@ public class DAGSP {
      * @return the length of the critical path
      */
     public int getCriticalPathLength(int source, List<Integer> topoOrder) {
+        return getCriticalPathLength(source, toArray(topoOrder));
+    }
+
+    /**
+     * Finds and returns the length of the critical path (longest path in the DAG).
+     *
+     * @param source    starting vertex
+     * @param topoOrder topological order of the DAG
+     * @return the length of the critical path
+     */
+    public int getCriticalPathLength(int source, int[] topoOrder) {
         int[] longest = longestPaths(source, topoOrder);
         int max = Integer.MIN_VALUE;
         for (int d : longest) {
@@ -142,4 +213,10 @@ public class DAGSP {
         }
         return max == Integer.MIN_VALUE ? 0 : max;
     }
+
+    private static int[] toArray(List<Integer> order) {
+        int[] array = new int[order.size()];
+        for (int i = 0; i < array.length; i++) array[i] = order.get(i);
+        return array;
+    }
 }
@@ -0,0 +1,454 @@
+package graph.dagsp;
+
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+import graph.util.IndexedIntHeap;
+import graph.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-source shortest or longest paths in a DAG that are kept up to date while
+ * edges are added, removed or change weight.
+ *
+ * Distances and parents are computed once with a full sweep. After an update of
+ * edge u -> v only v is marked dirty; dirty vertices are taken in increasing
+ * topological position from a heap keyed by position, and each one re-reads its
+ * distance from its incoming edges. Only if the distance changed are its successors
+ * marked dirty in turn, so the work is limited to the vertices whose distance
+ * actually changes and their direct successors. Since all predecessors of a vertex
+ * have smaller positions, they are final by the time the vertex is taken.
+ *
+ * An added edge that goes backwards in the current topological order is fixed with
+ * the Pearce-Kelly local reordering, which moves only vertices between the two
+ * endpoints; an edge that would close a cycle is rejected.
+ *
+ * At most one edge is kept per vertex pair: parallel edges of the initial graph are
+ * merged into the one with the best weight. A hash index from vertex pair to the
+ * edge's slot finds an edge in O(1), so building is linear in the edges and a
+ * weight change or removal does not scan the adjacency of high-degree vertices.
+ */
+public class IncrementalDAGSP {
+
+    private final int n;
+    private final int source;
+    private final boolean longest;
+    private final int unreachable;
+    private final Metrics metrics;
+
+    // Adjacency in both directions, one growable array pair per vertex
+    private final int[][] outTarget;
+    private final int[][] outWeight;
+    private final int[] outCount;
+    private final int[][] inSource;
+    private final int[][] inWeight;
+    private final int[] inCount;
+    private final int[][] outMate;              // slot of out-edge k of u in the in-edges of its target
+    private final int[][] inMate;               // slot of in-edge k of v in the out-edges of its source
+    private final LongIntHashMap arcs;          // (u, v) -> slot in the out-edges of u
+    private int numEdges;
+
+    private final int[] order;      // topological order
+    private final int[] position;   // position of every vertex in order
+    private final int[] dist;
+    private final int[] parent;
+    private final IndexedIntHeap dirty;
+    private final int[] mark;       // visited in the reordering search with stamp == epoch
+    private int epoch;
+
+    private int lastTouched;
+    private int lastReordered;
+    private long totalTouched;
+
+    /**
+     * @param dag       initial DAG (copied)
+     * @param topoOrder topological order of dag
+     * @param source    source vertex
+     * @param longest   true for longest paths (critical-path distances), false for shortest
+     * @param metrics   metrics tracker; counts relaxations of the initial sweep and of every update
+     */
+    public IncrementalDAGSP(IntGraph dag, int[] topoOrder, int source, boolean longest, Metrics metrics) {
+        this.n = dag.getN();
+        if (source < 0 || source >= n)
+            throw new IllegalArgumentException("Source " + source + " outside DAG of " + n + " vertices");
+        this.source = source;
+        this.longest = longest;
+        this.unreachable = longest ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        this.metrics = metrics;
+
+        outTarget = new int[n][];
+        outWeight = new int[n][];
+        outCount = new int[n];
+        inSource = new int[n][];
+        inWeight = new int[n][];
+        inCount = new int[n];
+        outMate = new int[n][];
+        inMate = new int[n][];
+        arcs = new LongIntHashMap(dag.getNumEdges());
+        int[] inDegree = new int[n];
+        EdgeCursor edges = dag.cursor();
+        for (int u = 0; u < n; u++) {
+            outTarget[u] = new int[Math.max(2, dag.outDegree(u))];
+            outWeight[u] = new int[outTarget[u].length];
+            outMate[u] = new int[outTarget[u].length];
+            edges.reset(u);
+            while (edges.next()) inDegree[edges.target()]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inSource[v] = new int[Math.max(2, inDegree[v])];
+            inWeight[v] = new int[inSource[v].length];
+            inMate[v] = new int[inSource[v].length];
+        }
+        for (int u = 0; u < n; u++) {
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                int k = arcs.get(arc(u, v), -1);
+                if (k < 0) {
+                    addArc(u, v, edges.weight());
+                } else if (better(edges.weight(), outWeight[u][k])) {
+                    setArcWeight(u, k, edges.weight());
+                }
+            }
+        }
+
+        order = topoOrder.clone();
+        position = new int[n];
+        for (int i = 0; i < n; i++) position[order[i]] = i;
+        dist = new int[n];
+        parent = new int[n];
+        dirty = new IndexedIntHeap(position);
+        mark = new int[n];
+        recomputeAll();
+    }
+
+    /**
+     * Full sweep over the topological order, as in {@link DAGSP}.
+     */
+    private void recomputeAll() {
+        metrics.start("dagsp-incremental", "full", n, numEdges);
+        Arrays.fill(dist, unreachable);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+        for (int u : order) {
+            if (dist[u] == unreachable) continue;
+            for (int k = 0; k < outCount[u]; k++) {
+                int v = outTarget[u][k];
+                int candidate = dist[u] + outWeight[u][k];
+                if (dist[v] == unreachable || better(candidate, dist[v])) {
+                    dist[v] = candidate;
+                    parent[v] = u;
+                    metrics.incrementCounter("Relaxations");
+                }
+            }
+        }
+        metrics.stop();
+    }
+
+    /**
+     * Adds edge u -> v, or changes its weight if it exists, and repairs the distances.
+     *
+     * @return number of vertices whose distance was re-evaluated
+     * @throws IllegalArgumentException if the edge would close a cycle
+     */
+    public int setEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        int k = arcs.get(arc(u, v), -1);
+        if (k >= 0) {
+            setArcWeight(u, k, weight);
+            lastReordered = 0;
+        } else {
+            if (u == v) throw new IllegalArgumentException("Edge " + u + " -> " + v + " would close a cycle");
+            lastReordered = position[u] > position[v] ? reorder(u, v) : 0;
+            addArc(u, v, weight);
+        }
+        return propagate(v);
+    }
+
+    /**
+     * Removes edge u -> v and repairs the distances. The topological order stays valid.
+     *
+     * @return number of vertices whose distance was re-evaluated
+     * @throws IllegalArgumentException if there is no such edge
+     */
+    public int removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        int k = arcs.remove(arc(u, v), -1);
+        if (k < 0) throw new IllegalArgumentException("No edge " + u + " -> " + v);
+        removeArc(u, k);
+        lastReordered = 0;
+        return propagate(v);
+    }
+
+    /**
+     * Re-evaluates v and, transitively, every successor whose predecessor changed,
+     * in increasing topological position.
+     */
+    private int propagate(int v) {
+        metrics.start("dagsp-incremental", "update", n, numEdges);
+        int touched = 0;
+        dirty.pushOrDecrease(v);
+        while (!dirty.isEmpty()) {
+            int x = dirty.pop();
+            touched++;
+
+            // Pull: best distance over the incoming edges (all of them are final)
+            int best = x == source ? 0 : unreachable;
+            int bestParent = -1;
+            for (int k = 0; k < inCount[x]; k++) {
+                int p = inSource[x][k];
+                if (dist[p] == unreachable) continue;
+                int candidate = dist[p] + inWeight[x][k];
+                if (x != source && (best == unreachable || better(candidate, best))) {
+                    best = candidate;
+                    bestParent = p;
+                }
+            }
+            parent[x] = bestParent;
+            if (best == dist[x]) continue;
+
+            dist[x] = best;
+            metrics.incrementCounter("Relaxations");
+            for (int k = 0; k < outCount[x]; k++) {
+                dirty.pushOrDecrease(outTarget[x][k]);
+            }
+        }
+        metrics.stop();
+        lastTouched = touched;
+        totalTouched += touched;
+        return touched;
+    }
+
+    /**
+     * Pearce-Kelly: makes room for u -> v when u comes after v. The vertices reachable
+     * from v up to u's position and those reaching u down to v's position swap into the
+     * union of their positions, the latter first.
+     *
+     * @return number of vertices moved
+     */
+    private int reorder(int u, int v) {
+        int lower = position[v];
+        int upper = position[u];
+        epoch++;
+        int[] forward = collect(v, upper, true, u);
+        if (forward == null) {
+            throw new IllegalArgumentException("Edge " + u + " -> " + v + " would close a cycle");
+        }
+        int[] backward = collect(u, lower, false, -1);
+
+        sortByPosition(forward);
+        sortByPosition(backward);
+        int[] slots = new int[forward.length + backward.length];
+        int k = 0;
+        for (int x : backward) slots[k++] = position[x];
+        for (int x : forward) slots[k++] = position[x];
+        Arrays.sort(slots);
+        k = 0;
+        for (int x : backward) place(x, slots[k++]);
+        for (int x : forward) place(x, slots[k++]);
+        return slots.length;
+    }
+
+    /**
+     * Iterative DFS from start along outgoing edges (forward) up to position bound, or
+     * along incoming edges (backward) down to position bound.
+     *
+     * @return visited vertices, or null if forward search reached stop
+     */
+    private int[] collect(int start, int bound, boolean forwardSearch, int stop) {
+        int[] stack = new int[16];
+        int[] visited = new int[16];
+        int top = 0;
+        int count = 0;
+        stack[top++] = start;
+        mark[start] = epoch;
+        while (top > 0) {
+            int x = stack[--top];
+            if (count == visited.length) visited = Arrays.copyOf(visited, count * 2);
+            visited[count++] = x;
+            int degree = forwardSearch ? outCount[x] : inCount[x];
+            int[] next = forwardSearch ? outTarget[x] : inSource[x];
+            for (int i = 0; i < degree; i++) {
+                int y = next[i];
+                if (y == stop) return null;
+                boolean inRange = forwardSearch ? position[y] < bound : position[y] > bound;
+                if (mark[y] == epoch || !inRange) continue;
+                mark[y] = epoch;
+                if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                stack[top++] = y;
+            }
+        }
+        return Arrays.copyOf(visited, count);
+    }
+
+    private void sortByPosition(int[] vertices) {
+        long[] keyed = new long[vertices.length];
+        for (int i = 0; i < vertices.length; i++) keyed[i] = ((long) position[vertices[i]] << 32) | vertices[i];
+        Arrays.sort(keyed);
+        for (int i = 0; i < vertices.length; i++) vertices[i] = (int) keyed[i];
+    }
+
+    private void place(int x, int slot) {
+        order[slot] = x;
+        position[x] = slot;
+    }
+
+    // ---- adjacency helpers ----
+
+    private static long arc(int u, int v) {
+        return (long) u << 32 | v;
+    }
+
+    private void addArc(int u, int v, int w) {
+        int k = outCount[u]++;
+        int j = inCount[v]++;
+        if (k == outTarget[u].length) {
+            outTarget[u] = Arrays.copyOf(outTarget[u], k * 2);
+            outWeight[u] = Arrays.copyOf(outWeight[u], k * 2);
+            outMate[u] = Arrays.copyOf(outMate[u], k * 2);
+        }
+        outTarget[u][k] = v;
+        outWeight[u][k] = w;
+        outMate[u][k] = j;
+        if (j == inSource[v].length) {
+            inSource[v] = Arrays.copyOf(inSource[v], j * 2);
+            inWeight[v] = Arrays.copyOf(inWeight[v], j * 2);
+            inMate[v] = Arrays.copyOf(inMate[v], j * 2);
+        }
+        inSource[v][j] = u;
+        inWeight[v][j] = w;
+        inMate[v][j] = k;
+        arcs.put(arc(u, v), k);
+        numEdges++;
+    }
+
+    /**
+     * Sets the weight of out-edge k of u on both sides.
+     */
+    private void setArcWeight(int u, int k, int w) {
+        outWeight[u][k] = w;
+        inWeight[outTarget[u][k]][outMate[u][k]] = w;
+    }
+
+    /**
+     * Removes out-edge k of u, whose index entry is already gone. The last edge of
+     * each adjacency array moves into the freed slot; its mate and index entry follow.
+     */
+    private void removeArc(int u, int k) {
+        int v = outTarget[u][k];
+        int j = outMate[u][k];
+        int last = --outCount[u];
+        if (k != last) {
+            int t = outTarget[u][last];
+            outTarget[u][k] = t;
+            outWeight[u][k] = outWeight[u][last];
+            outMate[u][k] = outMate[u][last];
+            inMate[t][outMate[u][k]] = k;
+            arcs.put(arc(u, t), k);
+        }
+        last = --inCount[v];
+        if (j != last) {
+            int p = inSource[v][last];
+            inSource[v][j] = p;
+            inWeight[v][j] = inWeight[v][last];
+            inMate[v][j] = inMate[v][last];
+            outMate[p][inMate[v][j]] = j;
+        }
+        numEdges--;
+    }
+
+    private boolean better(int candidate, int current) {
+        return longest ? candidate > current : candidate < current;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n) throw new IllegalArgumentException("Vertex " + v + " outside DAG of " + n + " vertices");
+    }
+
+    // ---- results ----
+
+    /**
+     * @return distance of v (Integer.MAX_VALUE / Integer.MIN_VALUE = unreachable)
+     */
+    public int getDistance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * @return copy of the current distances
+     */
+    public int[] getDistances() {
+        return dist.clone();
+    }
+
+    /**
+     * @return predecessor of v on an optimal path, -1 for the source and unreachable vertices
+     */
+    public int getParent(int v) {
+        return parent[v];
+    }
+
+    /**
+     * @return vertices of an optimal path from the source to target, empty if unreachable
+     */
+    public List<Integer> pathTo(int target) {
+        if (dist[target] == unreachable) return Collections.emptyList();
+        List<Integer> path = new ArrayList<>();
+        for (int v = target; v != -1; v = parent[v]) path.add(v);
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return copy of the current topological order
+     */
+    public int[] getTopoOrder() {
+        return order.clone();
+    }
+
+    /**
+     * @return the current graph in CSR layout
+     */
+    public CsrGraph toCsr() {
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[numEdges];
+        int[] weights = new int[numEdges];
+        int slot = 0;
+        for (int u = 0; u < n; u++) {
+            offsets[u] = slot;
+            System.arraycopy(outTarget[u], 0, targets, slot, outCount[u]);
+            System.arraycopy(outWeight[u], 0, weights, slot, outCount[u]);
+            slot += outCount[u];
+        }
+        offsets[n] = slot;
+        return new CsrGraph(n, offsets, targets, weights);
+    }
+
+    /**
+     * @return vertices re-evaluated by the last update
+     */
+    public int getLastTouched() {
+        return lastTouched;
+    }
+
+    /**
+     * @return vertices moved in the topological order by the last update
+     */
+    public int getLastReordered() {
+        return lastReordered;
+    }
+
+    /**
+     * @return vertices re-evaluated by all updates so far
+     */
+    public long getTotalTouched() {
+        return totalTouched;
+    }
+}
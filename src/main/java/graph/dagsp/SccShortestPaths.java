@@ -0,0 +1,174 @@
+package graph.dagsp;
+
+import graph.graph.EdgeCursor;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+import graph.scc.TarjanSCC;
+import graph.util.IndexedIntHeap;
+
+import java.util.Arrays;
+
+/**
+ * Exact single-source shortest paths on a weighted graph that may have cycles,
+ * using its SCC decomposition.
+ *
+ * Components are processed in topological order of the condensation. When a
+ * component is reached, every edge entering it has already been relaxed, so
+ * the tentative distances of its members are final up to paths inside it:
+ * - a single vertex without a self-loop just relaxes its outgoing edges (the DAGSP step);
+ * - a larger component runs Dijkstra seeded with all of its reached members,
+ *   queueing only vertices of the component and relaxing edges that leave it.
+ *
+ * Heap work is therefore limited to the vertices of non-trivial components,
+ * which makes graphs with few and small cycles close to the cost of DAGSP.
+ * Edge weights must be non-negative; a negative weight on a reachable edge is rejected.
+ */
+public class SccShortestPaths {
+
+    private final IntGraph graph;
+    private final int[] sccMap;
+    private final int[] componentOrder;
+    private final int[] start;      // members of component c: members[start[c] .. start[c + 1])
+    private final int[] members;
+    private final Metrics metrics;
+
+    /**
+     * @param graph   weighted graph with non-negative weights
+     * @param scc     its SCC decomposition (the condensation DAG is not needed)
+     * @param metrics metrics tracker
+     */
+    public SccShortestPaths(IntGraph graph, TarjanSCC.Result scc, Metrics metrics) {
+        this.graph = graph;
+        this.sccMap = scc.sccMap;
+        this.componentOrder = scc.topoOrder;
+        this.metrics = metrics;
+
+        // Group vertices by component (counting sort)
+        int count = scc.sccCount;
+        start = new int[count + 1];
+        for (int c : sccMap) start[c + 1]++;
+        for (int c = 0; c < count; c++) start[c + 1] += start[c];
+        int[] next = Arrays.copyOf(start, count);
+        members = new int[sccMap.length];
+        for (int v = 0; v < sccMap.length; v++) members[next[sccMap[v]]++] = v;
+    }
+
+    /**
+     * @param source source vertex
+     * @return shortest distance of every vertex (Integer.MAX_VALUE = unreachable)
+     * @throws IllegalArgumentException if a reachable edge has a negative weight
+     */
+    public int[] distances(int source) {
+        metrics.start("sssp", "hybrid", graph.getN(), graph.getNumEdges());
+
+        int n = graph.getN();
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        if (n == 0) {
+            metrics.stop();
+            return dist;
+        }
+        dist[source] = 0;
+
+        boolean[] reached = new boolean[start.length - 1];
+        reached[sccMap[source]] = true;
+        IndexedIntHeap heap = null;     // created at the first non-trivial component
+        EdgeCursor edges = graph.cursor();
+
+        // Components before the source's one in topological order cannot be reached
+        int first = 0;
+        while (componentOrder[first] != sccMap[source]) first++;
+
+        for (int i = first; i < componentOrder.length; i++) {
+            int c = componentOrder[i];
+            if (!reached[c]) continue;
+
+            if (start[c + 1] - start[c] == 1) {
+                // Trivial component: a self-loop cannot shorten a non-negative path
+                relax(members[start[c]], c, dist, reached, edges, null);
+                continue;
+            }
+
+            if (heap == null) heap = new IndexedIntHeap(dist);
+            for (int k = start[c]; k < start[c + 1]; k++) {
+                int v = members[k];
+                if (dist[v] != Integer.MAX_VALUE) heap.pushOrDecrease(v);
+            }
+            while (!heap.isEmpty()) {
+                int u = heap.pop();
+                metrics.incrementCounter("Heap Pops");
+                relax(u, c, dist, reached, edges, heap);
+            }
+        }
+
+        metrics.stop();
+        return dist;
+    }
+
+    /**
+     * Relaxes the outgoing edges of u in component c. Targets inside c are queued
+     * on the heap; targets in later components only get their tentative distance.
+     */
+    private void relax(int u, int c, int[] dist, boolean[] reached, EdgeCursor edges, IndexedIntHeap heap) {
+        int du = dist[u];
+        edges.reset(u);
+        while (edges.next()) {
+            int v = edges.target();
+            int w = checkWeight(u, v, edges.weight());
+            int candidate = du + w;
+            if (candidate < dist[v]) {
+                dist[v] = candidate;
+                metrics.incrementCounter("Relaxations");
+                int cv = sccMap[v];
+                if (cv == c) heap.pushOrDecrease(v);
+                else reached[cv] = true;
+            }
+        }
+    }
+
+    /**
+     * Plain Dijkstra over the whole graph, as a reference for the SCC-based solver.
+     *
+     * @return shortest distance of every vertex (Integer.MAX_VALUE = unreachable)
+     * @throws IllegalArgumentException if a reachable edge has a negative weight
+     */
+    public static int[] dijkstra(IntGraph graph, int source, Metrics metrics) {
+        metrics.start("sssp", "dijkstra", graph.getN(), graph.getNumEdges());
+
+        int n = graph.getN();
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        if (n == 0) {
+            metrics.stop();
+            return dist;
+        }
+        dist[source] = 0;
+        IndexedIntHeap heap = new IndexedIntHeap(dist);
+        heap.pushOrDecrease(source);
+        boolean[] done = new boolean[n];
+        EdgeCursor edges = graph.cursor();
+        while (!heap.isEmpty()) {
+            int u = heap.pop();
+            metrics.incrementCounter("Heap Pops");
+            done[u] = true;
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                int candidate = dist[u] + checkWeight(u, v, edges.weight());
+                if (!done[v] && candidate < dist[v]) {
+                    dist[v] = candidate;
+                    metrics.incrementCounter("Relaxations");
+                    heap.pushOrDecrease(v);
+                }
+            }
+        }
+
+        metrics.stop();
+        return dist;
+    }
+
+    private static int checkWeight(int u, int v, int w) {
+        if (w < 0) throw new IllegalArgumentException("Negative edge weight " + w + " on " + u + " -> " + v);
+        return w;
+    }
+}
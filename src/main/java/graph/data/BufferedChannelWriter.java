@@ -0,0 +1,136 @@
+package graph.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered writer on top of a {@link WritableByteChannel}.
+ * Writes ASCII numbers digit by digit and binary values in little-endian order,
+ * so large outputs are produced without building intermediate Strings.
+ */
+public class BufferedChannelWriter implements AutoCloseable {
+
+    private static final int DEFAULT_BUFFER = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buf;
+    private final byte[] digits = new byte[20];
+    private long written;
+
+    public BufferedChannelWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER);
+    }
+
+    public BufferedChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buf = ByteBuffer.allocateDirect(Math.max(64, bufferSize)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Opens (creates or truncates) a file for writing.
+     */
+    public static BufferedChannelWriter open(Path path) throws IOException {
+        return new BufferedChannelWriter(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.remaining() < bytes) drain();
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            written += channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    public BufferedChannelWriter writeByte(int b) throws IOException {
+        ensure(1);
+        buf.put((byte) b);
+        return this;
+    }
+
+    /**
+     * Writes the characters of an ASCII string (used for fixed keys and separators).
+     */
+    public BufferedChannelWriter writeAscii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            ensure(1);
+            buf.put((byte) s.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Writes a decimal representation of v.
+     */
+    public BufferedChannelWriter writeDecimal(long v) throws IOException {
+        ensure(20);
+        if (v == Long.MIN_VALUE) {
+            return writeAscii("-9223372036854775808");
+        }
+        if (v < 0) {
+            buf.put((byte) '-');
+            v = -v;
+        }
+        int len = 0;
+        do {
+            digits[len++] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        while (len > 0) {
+            buf.put(digits[--len]);
+        }
+        return this;
+    }
+
+    public BufferedChannelWriter writeInt(int v) throws IOException {
+        ensure(4);
+        buf.putInt(v);
+        return this;
+    }
+
+    public BufferedChannelWriter writeLong(long v) throws IOException {
+        ensure(8);
+        buf.putLong(v);
+        return this;
+    }
+
+    /**
+     * Writes len ints of the array as little-endian binary.
+     */
+    public BufferedChannelWriter writeInts(int[] values, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            ensure(4);
+            buf.putInt(values[i]);
+        }
+        return this;
+    }
+
+    /**
+     * @return number of bytes written so far, including buffered ones
+     */
+    public long position() {
+        return written + buf.position();
+    }
+
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
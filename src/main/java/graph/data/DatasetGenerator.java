@@ -3,8 +3,11 @@ package graph.data;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import graph.graph.EdgeList;
+
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -28,6 +31,13 @@ public class DatasetGenerator {
         public Integer source;
         public String weight_model = "edge";
         public Dataset(int n){ this.n=n; edges = new ArrayList<>(); source = 0; }
+
+        /** Copies the edges into a primitive {@link EdgeList}. */
+        public EdgeList toEdgeList(){
+            EdgeList list = new EdgeList(edges.size());
+            for (JsonEdge e : edges) list.add(e.u, e.v, e.w);
+            return list;
+        }
     }
 
     public static void main(String[] args) throws Exception {
@@ -108,13 +118,57 @@ public class DatasetGenerator {
         return ds;
     }
 
+    /**
+     * Generate a large sparse directed graph for benchmarks, straight into an {@link EdgeList}.
+     * Edges mostly lead to vertices a little further along a hidden order, a fraction of
+     * them lead slightly backwards (forming small SCCs). Vertex IDs are then shuffled, so
+     * the input has no useful ID locality, like real inputs with arbitrary IDs.
+     *
+     * @param n             number of vertices
+     * @param avgOutDegree  outgoing edges per vertex
+     * @param backEdgeRatio share of edges pointing backwards (0 = DAG)
+     * @param seed          random seed
+     */
+    public static EdgeList generateSparse(int n, int avgOutDegree, double backEdgeRatio, long seed){
+        Random r = new Random(seed);
+        int[] id = new int[n];
+        for (int i = 0; i < n; i++) id[i] = i;
+        for (int i = n - 1; i > 0; i--){
+            int j = r.nextInt(i + 1);
+            int t = id[i]; id[i] = id[j]; id[j] = t;
+        }
+        EdgeList list = new EdgeList(n * avgOutDegree);
+        for (int u = 0; u < n; u++){
+            for (int k = 0; k < avgOutDegree; k++){
+                int v = r.nextDouble() < backEdgeRatio
+                        ? u - 1 - r.nextInt(8)
+                        : u + 1 + r.nextInt(64);
+                if (v < 0 || v >= n) continue;
+                list.add(id[u], id[v], r.nextInt(9) + 1);
+            }
+        }
+        list.reserveVertices(n);
+        return list;
+    }
+
     private static boolean edgeExists(Dataset ds, int u, int v){
         return ds.edges.stream().anyMatch(e -> e.u == u && e.v == v);
     }
 
-    private static void makeAndSave(String path, Dataset ds) throws IOException {
-        try (FileWriter fw = new FileWriter(path)) {
-            G.toJson(ds, fw);
+    /**
+     * Saves a dataset. Paths ending in .ndjson/.jsonl/.txt/.edges are streamed as
+     * line-oriented edge lists (see {@link EdgeListFormat}); anything else is written as JSON.
+     */
+    public static void makeAndSave(String path, Dataset ds) throws IOException {
+        EdgeListFormat format = EdgeListFormat.fromPath(Path.of(path));
+        if (format != null) {
+            try (EdgeListWriter w = EdgeListWriter.open(Path.of(path), format)) {
+                for (JsonEdge e : ds.edges) w.writeEdge(e.u, e.v, e.w);
+            }
+        } else {
+            try (FileWriter fw = new FileWriter(path)) {
+                G.toJson(ds, fw);
+            }
         }
         System.out.println("Wrote " + path + " (n=" + ds.n + ", edges=" + ds.edges.size() + ")");
     }
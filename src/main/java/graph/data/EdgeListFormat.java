@@ -0,0 +1,48 @@
+package graph.data;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Line-oriented edge-list file formats.
+ *
+ * - NDJSON: one object per line, e.g. {"u":0,"v":1,"w":5}; u, v and w must be
+ *           integers, other fields are ignored
+ * - TEXT:   one edge per line as "u v w" or "u,v,w" ('#' starts a comment line,
+ *           a header line at the start of the file is skipped)
+ *
+ * In both formats the weight is optional and defaults to 1.
+ */
+public enum EdgeListFormat {
+    NDJSON,
+    TEXT;
+
+    /**
+     * Picks a format from the file extension: .ndjson / .jsonl are NDJSON,
+     * .txt / .edges / .el are TEXT.
+     *
+     * @return the matching format, or null if the extension is not an edge-list one
+     */
+    public static EdgeListFormat fromPath(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) return NDJSON;
+        if (name.endsWith(".txt") || name.endsWith(".edges") || name.endsWith(".el")) return TEXT;
+        return null;
+    }
+
+    /**
+     * Parses a format name as given on the command line ("ndjson", "text").
+     */
+    public static EdgeListFormat parse(String name) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "ndjson":
+            case "jsonl":
+                return NDJSON;
+            case "text":
+            case "txt":
+                return TEXT;
+            default:
+                throw new IllegalArgumentException("Unknown edge-list format: " + name);
+        }
+    }
+}
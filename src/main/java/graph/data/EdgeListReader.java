@@ -0,0 +1,352 @@
+package graph.data;
+
+import graph.graph.EdgeList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads NDJSON and plain-text edge lists (see {@link EdgeListFormat}) into an {@link EdgeList}.
+ *
+ * Input is consumed through a {@link FileChannel} into a byte buffer and integers are
+ * parsed directly from the bytes, so no String is created per line or per number.
+ * Large files can be split at line boundaries and parsed by several threads;
+ * the per-chunk results are concatenated in file order.
+ */
+public class EdgeListReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MIN_PARALLEL_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 1L << 28;
+
+    private EdgeListReader() {
+    }
+
+    /**
+     * Reads a file, picking the format from its extension.
+     */
+    public static EdgeList read(Path path) throws IOException {
+        return read(path, formatOf(path));
+    }
+
+    /**
+     * Reads a file sequentially through a single buffer.
+     */
+    public static EdgeList read(Path path, EdgeListFormat format) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            EdgeList out = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, ch.size() / 32)));
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            LineParser parser = new LineParser(format, out);
+            long consumed = 0;
+            while (true) {
+                int r = ch.read(buf);
+                buf.flip();
+                boolean eof = r < 0;
+                int before = buf.position();
+                parser.parse(buf, consumed, eof);
+                consumed += buf.position() - before;
+                if (eof) break;
+                if (buf.position() == 0 && buf.limit() == buf.capacity())
+                    throw new IOException("Edge-list line longer than " + BUFFER_SIZE + " bytes at byte " + consumed);
+                buf.compact();
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Reads a file in line-aligned chunks parsed concurrently.
+     * Small files fall back to the sequential reader.
+     *
+     * @param threads number of parser threads
+     */
+    public static EdgeList readParallel(Path path, EdgeListFormat format, int threads) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (threads <= 1 || size < 2 * MIN_PARALLEL_CHUNK) {
+                return read(path, format);
+            }
+            long[] bounds = chunkBounds(ch, size, threads);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<EdgeList>> parts = new ArrayList<>();
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    long start = bounds[i];
+                    long len = bounds[i + 1] - start;
+                    parts.add(pool.submit(() -> {
+                        MappedByteBuffer chunk = ch.map(FileChannel.MapMode.READ_ONLY, start, len);
+                        EdgeList part = new EdgeList((int) Math.max(16, len / 32));
+                        new LineParser(format, part).parse(chunk, start, true);
+                        return part;
+                    }));
+                }
+                EdgeList out = null;
+                for (Future<EdgeList> f : parts) {
+                    EdgeList part = f.get();
+                    if (out == null) out = part;
+                    else out.addAll(part);
+                }
+                return out;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading " + path, e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                throw new IOException("Failed to parse " + path, e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Parallel read with the format taken from the file extension.
+     */
+    public static EdgeList readParallel(Path path, int threads) throws IOException {
+        return readParallel(path, formatOf(path), threads);
+    }
+
+    private static EdgeListFormat formatOf(Path path) {
+        EdgeListFormat format = EdgeListFormat.fromPath(path);
+        if (format == null)
+            throw new IllegalArgumentException("Cannot infer edge-list format of " + path);
+        return format;
+    }
+
+    /**
+     * Splits [0, size) into chunks whose boundaries sit right after a newline.
+     */
+    private static long[] chunkBounds(FileChannel ch, long size, int threads) throws IOException {
+        long chunks = Math.max(threads * 4L, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        long step = Math.max(MIN_PARALLEL_CHUNK, size / chunks);
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (long nominal = step; nominal < size; nominal += step) {
+            long b = nextLineStart(ch, nominal, size, probe);
+            if (b > bounds.get(bounds.size() - 1) && b < size) bounds.add(b);
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) result[i] = bounds.get(i);
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel ch, long pos, long size, ByteBuffer probe) throws IOException {
+        long p = pos - 1;
+        while (p < size) {
+            probe.clear();
+            int r = ch.read(probe, p);
+            if (r <= 0) break;
+            for (int i = 0; i < r; i++) {
+                if (probe.get(i) == '\n') return p + i + 1;
+            }
+            p += r;
+        }
+        return size;
+    }
+
+    /**
+     * Byte-level parser for complete lines in a buffer.
+     */
+    private static final class LineParser {
+        private final EdgeListFormat format;
+        private final EdgeList out;
+        private final int[] values = new int[3];
+        private ByteBuffer buf;
+        private int pos;
+        private int end;
+        private boolean atFileStart;
+
+        LineParser(EdgeListFormat format, EdgeList out) {
+            this.format = format;
+            this.out = out;
+        }
+
+        /**
+         * Parses every complete line between position and limit. If eof is false, a trailing
+         * line without '\n' is left unconsumed; the buffer position is moved past the parsed lines.
+         *
+         * @param baseOffset file offset of the buffer's current position, used in error messages
+         */
+        void parse(ByteBuffer buffer, long baseOffset, boolean eof) throws IOException {
+            this.buf = buffer;
+            int start = buffer.position();
+            int limit = buffer.limit();
+            int lineStart = start;
+            while (lineStart < limit) {
+                int nl = lineStart;
+                while (nl < limit && buffer.get(nl) != '\n') nl++;
+                if (nl == limit && !eof) break;
+                pos = lineStart;
+                end = nl;
+                atFileStart = baseOffset + lineStart - start == 0;
+                boolean ok = format == EdgeListFormat.NDJSON ? parseJsonLine() : parseTextLine();
+                if (!ok)
+                    throw new IOException("Malformed " + format + " edge at byte " + (baseOffset + lineStart - start));
+                lineStart = Math.min(limit, nl + 1);
+            }
+            buffer.position(lineStart);
+        }
+
+        private boolean parseTextLine() {
+            skipSpaces();
+            if (pos == end || buf.get(pos) == '#') return true;
+            if (atFileStart && Character.isLetter(buf.get(pos))) return true; // CSV header
+            int count = 0;
+            while (pos < end && count < 3) {
+                if (!parseInt(count)) return false;
+                count++;
+                skipSpaces();
+            }
+            if (count < 2 || pos != end) return false;
+            out.add(values[0], values[1], count == 3 ? values[2] : 1);
+            return true;
+        }
+
+        /**
+         * Parses a flat JSON object. Keys "u", "v" and "w" must hold integers; other
+         * fields may hold any value and are skipped.
+         */
+        private boolean parseJsonLine() {
+            skipWhitespace();
+            if (pos == end) return true;
+            if (buf.get(pos++) != '{') return false;
+            int seen = 0;
+            values[2] = 1;
+            skipWhitespace();
+            while (pos < end && buf.get(pos) != '}') {
+                if (buf.get(pos) != '"') return false;
+                int keyStart = pos + 1;
+                if (!skipString()) return false;
+                int slot = pos - 1 - keyStart == 1 ? slotOf(buf.get(keyStart)) : -1;
+                skipWhitespace();
+                if (pos >= end || buf.get(pos) != ':') return false;
+                pos++;
+                skipWhitespace();
+                if (slot >= 0) {
+                    // A number must end here: "1.5" or "2e3" is not an integer weight
+                    if (!parseInt(slot) || pos < end && !isJsonDelimiter(buf.get(pos))) return false;
+                    seen |= 1 << slot;
+                } else if (!skipValue()) {
+                    return false;
+                }
+                skipWhitespace();
+                if (pos < end && buf.get(pos) == ',') {
+                    pos++;
+                    skipWhitespace();
+                } else if (pos >= end || buf.get(pos) != '}') {
+                    return false;
+                }
+            }
+            if (pos >= end) return false;
+            pos++;
+            skipWhitespace();
+            if (pos != end || (seen & 3) != 3) return false;
+            out.add(values[0], values[1], values[2]);
+            return true;
+        }
+
+        /**
+         * Moves past a JSON string that starts at pos, honouring backslash escapes.
+         *
+         * @return false if the string is not terminated on this line
+         */
+        private boolean skipString() {
+            pos++;
+            while (pos < end) {
+                byte b = buf.get(pos++);
+                if (b == '\\') pos++;
+                else if (b == '"') return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves past a value of an ignored field: a string, a scalar, or a nested object or array.
+         *
+         * @return false if the line ends inside the value
+         */
+        private boolean skipValue() {
+            int depth = 0;
+            while (pos < end) {
+                byte b = buf.get(pos);
+                if (b == '"') {
+                    if (!skipString()) return false;
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (depth == 0) return true;
+                    depth--;
+                } else if (b == ',' && depth == 0) {
+                    return true;
+                }
+                pos++;
+            }
+            return false;
+        }
+
+        private static boolean isJsonDelimiter(byte b) {
+            return b == ',' || b == '}' || b == ' ' || b == '\t' || b == '\r';
+        }
+
+        private static int slotOf(byte key) {
+            switch (key) {
+                case 'u': return 0;
+                case 'v': return 1;
+                case 'w': return 2;
+                default: return -1;
+            }
+        }
+
+        private boolean parseInt(int slot) {
+            boolean negative = false;
+            if (pos < end && buf.get(pos) == '-') {
+                negative = true;
+                pos++;
+            }
+            int digitsStart = pos;
+            long v = 0;
+            while (pos < end) {
+                int d = buf.get(pos) - '0';
+                if (d < 0 || d > 9) break;
+                v = v * 10 + d;
+                if (v > Integer.MAX_VALUE + 1L) return false;
+                pos++;
+            }
+            if (pos == digitsStart) return false;
+            if (negative) v = -v;
+            if (v > Integer.MAX_VALUE) return false;
+            values[slot] = (int) v;
+            return true;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                byte b = buf.get(pos);
+                if (b != ' ' && b != '\t' && b != '\r') break;
+                pos++;
+            }
+        }
+
+        private void skipSpaces() {
+            while (pos < end) {
+                byte b = buf.get(pos);
+                if (b != ' ' && b != '\t' && b != '\r' && b != ',') break;
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package graph.data;
+
+import graph.graph.Edge;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Streams edges to an NDJSON or plain-text edge-list file (see {@link EdgeListFormat}).
+ * Each edge is formatted straight into the output buffer, one line per edge.
+ */
+public class EdgeListWriter implements AutoCloseable {
+
+    private final BufferedChannelWriter out;
+    private final EdgeListFormat format;
+    private long edges;
+
+    public EdgeListWriter(BufferedChannelWriter out, EdgeListFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    /**
+     * Opens (creates or truncates) a file for writing.
+     */
+    public static EdgeListWriter open(Path path, EdgeListFormat format) throws IOException {
+        return new EdgeListWriter(BufferedChannelWriter.open(path), format);
+    }
+
+    /**
+     * Writes one edge as a single line.
+     */
+    public void writeEdge(int u, int v, int w) throws IOException {
+        if (format == EdgeListFormat.NDJSON) {
+            out.writeAscii("{\"u\":").writeDecimal(u)
+               .writeAscii(",\"v\":").writeDecimal(v)
+               .writeAscii(",\"w\":").writeDecimal(w)
+               .writeAscii("}\n");
+        } else {
+            out.writeDecimal(u).writeByte(' ').writeDecimal(v).writeByte(' ').writeDecimal(w).writeByte('\n');
+        }
+        edges++;
+    }
+
+    public void writeAll(EdgeList list) throws IOException {
+        for (int i = 0; i < list.size(); i++) {
+            writeEdge(list.getFrom(i), list.getTo(i), list.getWeight(i));
+        }
+    }
+
+    public void writeAll(Graph g) throws IOException {
+        for (int u = 0; u < g.getN(); u++) {
+            for (Edge e : g.getNeighbors(u)) {
+                writeEdge(u, e.getTo(), e.getWeight());
+            }
+        }
+    }
+
+    /**
+     * @return number of edges written so far
+     */
+    public long getEdgeCount() {
+        return edges;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
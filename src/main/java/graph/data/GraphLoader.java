@@ -0,0 +1,109 @@
+package graph.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import graph.graph.EdgeList;
+import graph.metrics.Footprint;
+import graph.metrics.MemoryBudget;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads a graph file in any supported input format into an {@link EdgeList}:
+ * the JSON dataset format written by {@link DatasetGenerator}, or one of the
+ * line-oriented {@link EdgeListFormat}s.
+ */
+public final class GraphLoader {
+
+    /** Bytes read from the start of a file to estimate its edge count. */
+    private static final int SAMPLE_BYTES = 1 << 20;
+    /** Transient bytes per edge of the Gson object model: a JsonEdge and its list slot. */
+    private static final int JSON_BYTES_PER_EDGE = 28;
+
+    private GraphLoader() {
+    }
+
+    /**
+     * @param path    input file
+     * @param format  "json", "ndjson", "text" or "auto" (pick by extension, JSON otherwise)
+     * @param threads parser threads for edge-list formats
+     * @return edges of the graph; the vertex count covers the dataset's declared n
+     */
+    public static EdgeList load(Path path, String format, int threads) throws IOException {
+        if (format.equals("auto")) {
+            EdgeListFormat byExtension = EdgeListFormat.fromPath(path);
+            format = byExtension == null ? "json" : byExtension.name();
+        }
+        if (format.equalsIgnoreCase("json")) {
+            return loadJson(path);
+        }
+        EdgeListFormat edgeFormat = EdgeListFormat.parse(format);
+        return threads > 1
+                ? EdgeListReader.readParallel(path, edgeFormat, threads)
+                : EdgeListReader.read(path, edgeFormat);
+    }
+
+    /**
+     * Loads a graph within a memory budget. The edge count is estimated from a
+     * sample at the start of the file and the edge list is reserved before parsing,
+     * so that a file that cannot fit fails before it is read; the reservation is
+     * corrected to the loaded size afterwards.
+     *
+     * @throws IllegalStateException if the edges do not fit in the budget
+     */
+    public static EdgeList load(Path path, String format, int threads, MemoryBudget budget) throws IOException {
+        if (budget.isUnlimited()) {
+            EdgeList edges = load(path, format, threads);
+            budget.reserve("edge list", Footprint.of(edges));
+            return edges;
+        }
+        boolean json = format.equalsIgnoreCase("json")
+                || format.equals("auto") && EdgeListFormat.fromPath(path) == null;
+        long estimated = estimateEdges(path, json ? '}' : '\n');
+        long reserved = Footprint.edgeList(estimated);
+        long parser = json ? estimated * JSON_BYTES_PER_EDGE : 0;
+        budget.reserve("edge list of ~" + estimated + " edges", reserved + parser);
+        EdgeList edges = load(path, format, threads);
+        budget.release(reserved + parser);
+        budget.reserve("edge list", Footprint.of(edges));
+        return edges;
+    }
+
+    /**
+     * Extrapolates the number of records from the record separators in the first
+     * {@value #SAMPLE_BYTES} bytes of the file.
+     */
+    static long estimateEdges(Path path, char separator) throws IOException {
+        long size = Files.size(path);
+        byte[] sample = new byte[(int) Math.min(size, SAMPLE_BYTES)];
+        int read = 0;
+        try (InputStream in = Files.newInputStream(path)) {
+            int r;
+            while (read < sample.length && (r = in.read(sample, read, sample.length - read)) > 0) read += r;
+        }
+        long records = 0;
+        for (int i = 0; i < read; i++) {
+            if (sample[i] == separator) records++;
+        }
+        if (read == 0) return 0;
+        return Math.max(records, records * size / read);
+    }
+
+    private static EdgeList loadJson(Path path) throws IOException {
+        DatasetGenerator.Dataset ds;
+        try (Reader reader = Files.newBufferedReader(path)) {
+            ds = new Gson().fromJson(reader, DatasetGenerator.Dataset.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed JSON dataset " + path + ": " + e.getMessage(), e);
+        }
+        if (ds == null || ds.edges == null)
+            throw new IOException("Not a graph dataset: " + path);
+        EdgeList edges = ds.toEdgeList();
+        edges.reserveVertices(ds.n);
+        return edges;
+    }
+}
@@ -0,0 +1,463 @@
+package graph.data;
+
+import graph.graph.EdgeCursor;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.graph.MappedCsrGraph;
+import graph.metrics.Metrics;
+import graph.scc.TarjanSCC;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned, checksummed binary snapshot of an analyzed graph: the input graph in
+ * CSR layout, the SCC map and membership, the condensation DAG, its topological
+ * order and any number of labelled distance arrays.
+ *
+ * <pre>
+ * header:  int MAGIC, int VERSION, byte[32] SHA-256 of the input file, int CRC-32C of the header
+ * section: int tag, int labelLength, byte[label] (UTF-8, padded to 4 bytes), int source, int count, int[count] values,
+ *          int CRC-32C of the section
+ * footer:  int END
+ * </pre>
+ *
+ * Little-endian throughout, like {@link graph.output.BinaryResultWriter}. Opening a
+ * snapshot maps the file, checks the header and the section layout and exposes every
+ * section as a view of the mapping: the graphs are {@link MappedCsrGraph}s and are
+ * usable without parsing or copying. A section's checksum is verified the first time
+ * the section is used, so a warm restart only reads the sections it needs; a
+ * mismatch then surfaces as an {@link UncheckedIOException}. The input hash tells
+ * whether the snapshot still matches the graph file it was built from
+ * (see {@link #isFresh(byte[])}).
+ *
+ * A section is mapped on its own, so it may hold at most 2^29 ints (2 GB).
+ */
+public class Snapshot {
+
+    public static final int MAGIC = 0x50534e47; // "GNSP" in little-endian bytes
+    public static final int VERSION = 2;
+
+    public static final int END = 0;
+    public static final int GRAPH_OFFSETS = 1;
+    public static final int GRAPH_TARGETS = 2;
+    public static final int GRAPH_WEIGHTS = 3;
+    public static final int SCC_MAP = 4;            // source = component count
+    public static final int MEMBER_OFFSETS = 5;
+    public static final int MEMBERS = 6;
+    public static final int DAG_OFFSETS = 7;
+    public static final int DAG_TARGETS = 8;
+    public static final int DAG_WEIGHTS = 9;
+    public static final int TOPO_ORDER = 10;
+    public static final int DISTANCES = 11;         // label = cache key
+
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = 8 + HASH_BYTES + 4;
+    private static final int MAX_SECTION_INTS = 1 << 29;
+
+    private final byte[] inputHash;
+    private final Map<Integer, Section> sections;
+    private final MappedCsrGraph graph;
+    private final IntBuffer sccMap;
+    private final int sccCount;
+    private final IntBuffer memberOffsets;
+    private final IntBuffer members;
+    private final MappedCsrGraph condensation;
+    private final IntBuffer topoOrder;
+    private final Map<String, Section> distances;
+
+    private Snapshot(byte[] inputHash, Map<Integer, Section> sections, int sccCount,
+                     Map<String, Section> distances) throws IOException {
+        this.inputHash = inputHash;
+        this.sections = sections;
+        this.graph = csr(sections, GRAPH_OFFSETS, GRAPH_TARGETS, GRAPH_WEIGHTS);
+        if (graph == null) throw new IOException("Snapshot has no graph");
+        this.sccMap = values(sections, SCC_MAP);
+        this.sccCount = sccCount;
+        this.memberOffsets = values(sections, MEMBER_OFFSETS);
+        this.members = values(sections, MEMBERS);
+        this.topoOrder = values(sections, TOPO_ORDER);
+        if (sccMap != null && (memberOffsets == null || members == null || topoOrder == null
+                || sccMap.limit() != graph.getN() || memberOffsets.limit() != sccCount + 1
+                || topoOrder.limit() != sccCount))
+            throw new IOException("Inconsistent SCC sections in snapshot");
+        this.condensation = csr(sections, DAG_OFFSETS, DAG_TARGETS, DAG_WEIGHTS);
+        this.distances = distances;
+    }
+
+    /**
+     * A mapped section. Its values are usable right away; {@link #verify()} checks
+     * the stored checksum once, before the first real use of the section.
+     */
+    private static final class Section {
+        final String name;
+        final IntBuffer values;
+        private final byte[] head;
+        private final ByteBuffer bytes;
+        private final int crc;
+        private volatile boolean verified;
+
+        Section(String name, byte[] head, ByteBuffer bytes, int crc) {
+            this.name = name;
+            this.head = head;
+            this.bytes = bytes;
+            this.crc = crc;
+            this.values = bytes.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+
+        void verify() {
+            if (verified) return;
+            CRC32C c = new CRC32C();
+            c.update(head);
+            c.update(bytes.duplicate());
+            if ((int) c.getValue() != crc) {
+                String message = "Snapshot checksum mismatch in section " + name;
+                throw new UncheckedIOException(message, new IOException(message));
+            }
+            verified = true;
+        }
+    }
+
+    private static IntBuffer values(Map<Integer, Section> sections, int tag) {
+        Section section = sections.get(tag);
+        return section == null ? null : section.values;
+    }
+
+    private void verify(int... tags) {
+        for (int tag : tags) {
+            Section section = sections.get(tag);
+            if (section != null) section.verify();
+        }
+    }
+
+    private static MappedCsrGraph csr(Map<Integer, Section> sections, int offsets, int targets, int weights)
+            throws IOException {
+        IntBuffer o = values(sections, offsets);
+        if (o == null) return null;
+        try {
+            return new MappedCsrGraph(o.limit() - 1, o, values(sections, targets), values(sections, weights));
+        } catch (RuntimeException e) {
+            throw new IOException("Inconsistent CSR sections in snapshot", e);
+        }
+    }
+
+    /**
+     * Writes a snapshot. The file is written next to path and moved into place, so a
+     * reader never sees a partial snapshot and an existing mapping of the old file stays valid.
+     *
+     * @param inputHash SHA-256 of the input file (see {@link #hashFile(Path)})
+     * @param graph        input graph
+     * @param scc          SCC result over graph, or null
+     * @param condensation condensation DAG of scc, or null
+     * @param distances    distance arrays by cache key
+     */
+    public static void write(Path path, byte[] inputHash, IntGraph graph, TarjanSCC.Result scc,
+                             IntGraph condensation, Map<String, int[]> distances) throws IOException {
+        if (inputHash.length != HASH_BYTES)
+            throw new IllegalArgumentException("Input hash must have " + HASH_BYTES + " bytes");
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        // Byte ranges to checksum, the header first; each checksum goes right after its range
+        List<long[]> ranges = new ArrayList<>();
+        ranges.add(new long[]{0, HEADER_BYTES - 4});
+        try (BufferedChannelWriter out = BufferedChannelWriter.open(tmp)) {
+            out.writeInt(MAGIC).writeInt(VERSION);
+            for (byte b : inputHash) out.writeByte(b);
+            out.writeInt(0);
+            writeCsr(out, ranges, graph, GRAPH_OFFSETS);
+            if (scc != null) {
+                section(out, ranges, SCC_MAP, "", scc.sccCount, scc.sccMap);
+                int[] offsets = new int[scc.sccCount + 1];
+                int[] flat = new int[scc.sccMap.length];
+                int k = 0;
+                for (int c = 0; c < scc.sccCount; c++) {
+                    offsets[c] = k;
+                    for (int v : scc.sccs.get(c)) flat[k++] = v;
+                }
+                offsets[scc.sccCount] = k;
+                section(out, ranges, MEMBER_OFFSETS, "", 0, offsets);
+                section(out, ranges, MEMBERS, "", 0, flat);
+                if (condensation != null) writeCsr(out, ranges, condensation, DAG_OFFSETS);
+                section(out, ranges, TOPO_ORDER, "", 0, scc.topoOrder);
+            }
+            for (Map.Entry<String, int[]> e : distances.entrySet()) {
+                section(out, ranges, DISTANCES, e.getKey(), 0, e.getValue());
+            }
+            out.writeInt(END);
+        }
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer crc = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            for (long[] range : ranges) {
+                crc.putInt(0, checksum(channel, range[0], range[1]));
+                channel.write(crc.clear(), range[1]);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeCsr(BufferedChannelWriter out, List<long[]> ranges, IntGraph g, int offsetsTag)
+            throws IOException {
+        int n = g.getN();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) offsets[u + 1] = offsets[u] + g.outDegree(u);
+        section(out, ranges, offsetsTag, "", 0, offsets);
+
+        // Targets and weights are streamed row by row: only the offsets are materialized.
+        EdgeCursor edges = g.cursor();
+        for (int pass = 0; pass < 2; pass++) {
+            header(out, ranges, offsetsTag + 1 + pass, "", 0, offsets[n]);
+            for (int u = 0; u < n; u++) {
+                edges.reset(u);
+                while (edges.next()) out.writeInt(pass == 0 ? edges.target() : edges.weight());
+            }
+            end(out, ranges);
+        }
+    }
+
+    private static void section(BufferedChannelWriter out, List<long[]> ranges, int tag, String label,
+                                int source, int[] values) throws IOException {
+        header(out, ranges, tag, label, source, values.length);
+        out.writeInts(values, 0, values.length);
+        end(out, ranges);
+    }
+
+    private static void header(BufferedChannelWriter out, List<long[]> ranges, int tag, String label,
+                               int source, int count) throws IOException {
+        if (count > MAX_SECTION_INTS) throw new IOException("Snapshot section of " + count + " ints is too large");
+        ranges.add(new long[]{out.position(), -1});
+        byte[] name = label.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(tag).writeInt(name.length);
+        for (byte b : name) out.writeByte(b);
+        for (int i = name.length; i % 4 != 0; i++) out.writeByte(0);
+        out.writeInt(source).writeInt(count);
+    }
+
+    /**
+     * Ends the current section with a placeholder for its checksum, filled in once the file is complete.
+     */
+    private static void end(BufferedChannelWriter out, List<long[]> ranges) throws IOException {
+        ranges.get(ranges.size() - 1)[1] = out.position();
+        out.writeInt(0);
+    }
+
+    /**
+     * Maps a snapshot and verifies its header and section layout. Section checksums
+     * are verified when the sections are first used.
+     *
+     * @throws IOException if the file is not a snapshot, has another version, is truncated or corrupt
+     */
+    public static Snapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 4) throw new IOException("Not a snapshot file: " + path);
+            ByteBuffer head = read(channel, 0, HEADER_BYTES);
+            if (head.getInt() != MAGIC) throw new IOException("Not a snapshot file: " + path);
+            int version = head.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            byte[] inputHash = new byte[HASH_BYTES];
+            head.get(inputHash);
+            CRC32C headCrc = new CRC32C();
+            headCrc.update(head.array(), 0, HEADER_BYTES - 4);
+            if ((int) headCrc.getValue() != head.getInt()) throw new IOException("Snapshot checksum mismatch: " + path);
+
+            // Walk the section headers; the values are mapped, not read.
+            Map<Integer, Section> sections = new HashMap<>();
+            Map<String, Section> distances = new LinkedHashMap<>();
+            int sccCount = 0;
+            long pos = HEADER_BYTES;
+            while (true) {
+                long start = pos;
+                int tag = read(channel, pos, 4).getInt();
+                pos += 4;
+                if (tag == END) break;
+                int labelLength = read(channel, pos, 4).getInt();
+                pos += 4;
+                if (labelLength < 0 || pos + labelLength > size) throw new IOException("Corrupt snapshot section");
+                String label = new String(read(channel, pos, labelLength).array(), StandardCharsets.UTF_8);
+                pos += (labelLength + 3) & ~3;
+                ByteBuffer sh = read(channel, pos, 8);
+                int source = sh.getInt();
+                int count = sh.getInt();
+                pos += 8;
+                if (count < 0 || count > MAX_SECTION_INTS || pos + 4L * count > size - 8)
+                    throw new IOException("Corrupt snapshot section");
+                byte[] sectionHead = read(channel, start, (int) (pos - start)).array();
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, pos, 4L * count);
+                pos += 4L * count;
+                int crc = read(channel, pos, 4).getInt();
+                pos += 4;
+                Section section = new Section(tag == DISTANCES ? label : String.valueOf(tag), sectionHead, mapped, crc);
+                if (tag == DISTANCES) {
+                    distances.put(label, section);
+                } else {
+                    sections.put(tag, section);
+                    if (tag == SCC_MAP) sccCount = source;
+                }
+            }
+            if (pos != size) throw new IOException("Corrupt snapshot: trailing data");
+            return new Snapshot(inputHash, sections, sccCount, distances);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long pos, int bytes) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, pos + buf.position()) < 0) throw new IOException("Truncated snapshot");
+        }
+        return buf.flip();
+    }
+
+    private static int checksum(FileChannel channel, long from, long to) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long pos = from; pos < to; pos += Integer.MAX_VALUE) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(Integer.MAX_VALUE, to - pos)));
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return SHA-256 of a file's contents
+     */
+    public static byte[] hashFile(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long pos = 0; pos < size; pos += Integer.MAX_VALUE) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(Integer.MAX_VALUE, size - pos)));
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * @return true if the snapshot was built from a file with this SHA-256
+     */
+    public boolean isFresh(byte[] inputHash) {
+        return Arrays.equals(this.inputHash, inputHash);
+    }
+
+    /**
+     * Verifies the checksums of the graph, SCC and condensation sections now instead
+     * of on first use. Distance arrays are still verified when they are read.
+     *
+     * @throws UncheckedIOException if one of them is corrupt
+     */
+    public void verifyStructure() {
+        verify(GRAPH_OFFSETS, GRAPH_TARGETS, GRAPH_WEIGHTS, SCC_MAP, MEMBER_OFFSETS, MEMBERS,
+                DAG_OFFSETS, DAG_TARGETS, DAG_WEIGHTS, TOPO_ORDER);
+    }
+
+    /**
+     * @return the input graph, backed by the mapping
+     */
+    public MappedCsrGraph graph() {
+        verify(GRAPH_OFFSETS, GRAPH_TARGETS, GRAPH_WEIGHTS);
+        return graph;
+    }
+
+    public boolean hasScc() {
+        return sccMap != null;
+    }
+
+    public int sccCount() {
+        return sccCount;
+    }
+
+    public int componentOf(int v) {
+        verify(SCC_MAP);
+        return sccMap.get(v);
+    }
+
+    /**
+     * @return vertices of component c, in the order of the original SCC result
+     */
+    public int[] members(int c) {
+        verify(MEMBER_OFFSETS, MEMBERS);
+        int from = memberOffsets.get(c);
+        int[] result = new int[memberOffsets.get(c + 1) - from];
+        members.get(from, result);
+        return result;
+    }
+
+    /**
+     * @return the condensation DAG backed by the mapping, or null if it was not saved
+     */
+    public MappedCsrGraph condensation() {
+        verify(DAG_OFFSETS, DAG_TARGETS, DAG_WEIGHTS);
+        return condensation;
+    }
+
+    /**
+     * @return the topological order of the condensation saved with the SCC result
+     */
+    public int[] topoOrder() {
+        verify(TOPO_ORDER);
+        int[] order = new int[topoOrder.limit()];
+        topoOrder.get(0, order);
+        return order;
+    }
+
+    public Set<String> distanceKeys() {
+        return distances.keySet();
+    }
+
+    /**
+     * @return a copy of the distance array saved under key, or null
+     */
+    public int[] distances(String key) {
+        Section section = distances.get(key);
+        if (section == null) return null;
+        section.verify();
+        IntBuffer d = section.values;
+        int[] result = new int[d.limit()];
+        d.get(0, result);
+        return result;
+    }
+
+    /**
+     * Rebuilds the SCC membership and the saved topological order on the heap. The
+     * result has no condensation {@link Graph}: building its adjacency sets costs more
+     * than the whole SCC computation, so the DAG is used in place through
+     * {@link #condensation()}.
+     *
+     * @throws IllegalStateException if the snapshot has no SCC sections
+     */
+    public TarjanSCC.Result toSccResult(Metrics metrics) {
+        if (!hasScc()) throw new IllegalStateException("Snapshot has no SCC result");
+        verify(SCC_MAP);
+        int[] map = new int[sccMap.limit()];
+        sccMap.get(0, map);
+        List<List<Integer>> sccs = new ArrayList<>(sccCount);
+        for (int c = 0; c < sccCount; c++) {
+            List<Integer> component = new ArrayList<>();
+            for (int v : members(c)) component.add(v);
+            sccs.add(component);
+        }
+        return new TarjanSCC.Result(sccs, map, sccCount, null, topoOrder(), metrics);
+    }
+}
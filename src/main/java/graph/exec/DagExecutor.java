@@ -0,0 +1,347 @@
+package graph.exec;
+
+import graph.dagsp.CriticalPathMethod;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+import graph.scc.TarjanSCC;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs one task per node of a DAG (typically the condensation DAG of a
+ * {@link TarjanSCC.Result}) on a work-stealing {@link ForkJoinPool}.
+ *
+ * A node becomes ready as soon as the atomic counter of its unfinished
+ * predecessors drops to zero; there is no barrier between topological levels.
+ * The worker that finishes a task releases its successors: it continues with the
+ * ready successor of highest priority itself and forks the others onto its own
+ * deque, where idle workers steal them. Forked nodes are pushed in ascending
+ * priority so that the owner, which pops its deque LIFO, takes the most urgent first.
+ *
+ * The priority of a node is its remaining critical-path length. Given the
+ * duration of every task, it is the largest total duration of a path from the
+ * node (included) to a node without successors. Without durations it is the
+ * longest weighted path from the node to the end of the DAG, computed with
+ * {@link CriticalPathMethod} as (schedule length - latest start); on a
+ * condensation DAG, whose edges all weigh 1, that only counts hops.
+ */
+public class DagExecutor {
+
+    /**
+     * Work of one DAG node.
+     */
+    public interface NodeTask {
+        void run(int node) throws Exception;
+    }
+
+    private final IntGraph dag;
+    private final int[] priority;
+    private final int parallelism;
+
+    /**
+     * @param dag         DAG whose nodes are tasks; edge u -> v means v waits for u
+     * @param topoOrder   topological order of dag, used to compute priorities
+     * @param parallelism number of worker threads
+     * @throws IllegalArgumentException if topoOrder is not a topological order of every node of dag,
+     *                                  which is the case whenever dag has a cycle
+     */
+    public DagExecutor(IntGraph dag, int[] topoOrder, int parallelism) {
+        this(dag, topoOrder, null, parallelism);
+    }
+
+    /**
+     * @param dag         DAG whose nodes are tasks; edge u -> v means v waits for u
+     * @param topoOrder   topological order of dag, used to compute priorities
+     * @param durations   expected cost of every node's task, or null to prioritize by edge weights
+     * @param parallelism number of worker threads
+     * @throws IllegalArgumentException if topoOrder is not a topological order of every node of dag,
+     *                                  or durations has the wrong length or a negative entry
+     */
+    public DagExecutor(IntGraph dag, int[] topoOrder, int[] durations, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1, got " + parallelism);
+        checkTopologicalOrder(dag, topoOrder);
+        this.dag = dag;
+        this.parallelism = parallelism;
+        this.priority = durations == null ? remainingLength(dag, topoOrder) : remainingLength(dag, topoOrder, durations);
+    }
+
+    /**
+     * Executor over the condensation DAG of an SCC result: one task per component,
+     * ordered by Tarjan's topological order. All DAG edges weigh 1, so priorities
+     * count the components left on a path, not their cost.
+     */
+    public static DagExecutor forCondensation(TarjanSCC.Result scc, int parallelism) {
+        return forCondensation(scc, null, parallelism);
+    }
+
+    /**
+     * Executor over the condensation DAG of an SCC result, prioritized by the total
+     * duration of the components left on the longest path.
+     *
+     * @param durations expected cost of every component's task, e.g. its size
+     */
+    public static DagExecutor forCondensation(TarjanSCC.Result scc, int[] durations, int parallelism) {
+        if (scc.condensation == null)
+            throw new IllegalArgumentException("SCC result has no condensation DAG");
+        return new DagExecutor(CsrGraph.of(scc.condensation), scc.topoOrder, durations, parallelism);
+    }
+
+    /**
+     * Checks that order lists every node once and that every edge goes forward in it.
+     * A node on a cycle would never become ready, so execute() would wait forever.
+     */
+    private static void checkTopologicalOrder(IntGraph dag, int[] order) {
+        int n = dag.getN();
+        if (order.length != n)
+            throw new IllegalArgumentException("Topological order has " + order.length + " nodes, DAG has " + n);
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            if (v < 0 || v >= n || position[v] >= 0)
+                throw new IllegalArgumentException("Topological order lists node " + v + " twice or out of range");
+            position[v] = i;
+        }
+        EdgeCursor edges = dag.cursor();
+        for (int u = 0; u < n; u++) {
+            edges.reset(u);
+            while (edges.next()) {
+                if (position[edges.target()] <= position[u])
+                    throw new IllegalArgumentException("Edge " + u + " -> " + edges.target()
+                            + " goes backwards in the topological order: the graph is not a DAG");
+            }
+        }
+    }
+
+    /**
+     * @return for every node, the longest weighted path from it to a node without successors
+     */
+    public static int[] remainingLength(IntGraph dag, int[] topoOrder) {
+        CriticalPathMethod.Schedule schedule = new CriticalPathMethod(dag, new Metrics()).schedule(topoOrder);
+        int[] remaining = new int[dag.getN()];
+        for (int v = 0; v < remaining.length; v++) {
+            remaining[v] = schedule.length - schedule.latestStart[v];
+        }
+        return remaining;
+    }
+
+    /**
+     * @return for every node, the largest total duration of a path from it (included) to a
+     * node without successors
+     * @throws IllegalArgumentException if durations has the wrong length or a negative entry
+     */
+    public static int[] remainingLength(IntGraph dag, int[] topoOrder, int[] durations) {
+        int n = dag.getN();
+        if (durations.length != n)
+            throw new IllegalArgumentException(durations.length + " durations for " + n + " nodes");
+        int[] remaining = new int[n];
+        EdgeCursor edges = dag.cursor();
+        for (int i = n - 1; i >= 0; i--) {
+            int u = topoOrder[i];
+            if (durations[u] < 0) throw new IllegalArgumentException("Negative duration of node " + u);
+            int longest = 0;
+            edges.reset(u);
+            while (edges.next()) longest = Math.max(longest, remaining[edges.target()]);
+            remaining[u] = durations[u] + longest;
+        }
+        return remaining;
+    }
+
+    public int[] getPriority() {
+        return priority;
+    }
+
+    /**
+     * Runs task once for every node, each after all of its predecessors finished.
+     * If a task fails, no further tasks are started and the first failure is rethrown.
+     *
+     * @return timing report
+     * @throws ExecutionException   wrapping the first exception thrown by a task
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public Report execute(NodeTask task) throws ExecutionException, InterruptedException {
+        Run run = new Run(task);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            run.start = System.nanoTime();
+            if (run.remaining.get() == 0) {
+                run.done.countDown();
+            }
+            // External submissions are taken in FIFO order: most urgent sources first
+            for (int v : sortByPriority(run.sources(), true)) {
+                pool.execute(run.new Node(v));
+            }
+            run.done.await();
+            long makespan = System.nanoTime() - run.start;
+            if (run.failure.get() != null) throw new ExecutionException(run.failure.get());
+            return new Report(makespan, run.busy.sum(), parallelism, run.startedAt, run.finishedAt);
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Sorts nodes by priority (insertion sort: ready sets are small), descending or ascending.
+     */
+    private int[] sortByPriority(int[] nodes, boolean descending) {
+        for (int i = 1; i < nodes.length; i++) {
+            int v = nodes[i];
+            int j = i - 1;
+            while (j >= 0 && (descending ? priority[nodes[j]] < priority[v] : priority[nodes[j]] > priority[v])) {
+                nodes[j + 1] = nodes[j];
+                j--;
+            }
+            nodes[j + 1] = v;
+        }
+        return nodes;
+    }
+
+    /**
+     * State of one execution.
+     */
+    private final class Run {
+        final NodeTask task;
+        final AtomicIntegerArray pending;           // unfinished predecessors per node
+        final AtomicInteger remaining;              // nodes not yet finished
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final LongAdder busy = new LongAdder();
+        final long[] startedAt;
+        final long[] finishedAt;
+        long start;
+
+        Run(NodeTask task) {
+            this.task = task;
+            int n = dag.getN();
+            int[] inDegree = new int[n];
+            EdgeCursor edges = dag.cursor();
+            for (int u = 0; u < n; u++) {
+                edges.reset(u);
+                while (edges.next()) inDegree[edges.target()]++;
+            }
+            this.pending = new AtomicIntegerArray(inDegree);
+            this.remaining = new AtomicInteger(n);
+            this.startedAt = new long[n];
+            this.finishedAt = new long[n];
+        }
+
+        int[] sources() {
+            int count = 0;
+            for (int v = 0; v < pending.length(); v++) if (pending.get(v) == 0) count++;
+            int[] sources = new int[count];
+            int k = 0;
+            for (int v = 0; v < pending.length(); v++) if (pending.get(v) == 0) sources[k++] = v;
+            return sources;
+        }
+
+        /**
+         * Runs a node, then keeps going with its most urgent newly ready successor.
+         */
+        final class Node extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int first;
+
+            Node(int first) {
+                this.first = first;
+            }
+
+            @Override
+            protected void compute() {
+                EdgeCursor edges = dag.cursor();
+                int[] ready = new int[4];
+                int v = first;
+                while (v >= 0 && failure.get() == null) {
+                    long t0 = System.nanoTime();
+                    try {
+                        task.run(v);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                        done.countDown();
+                        return;
+                    }
+                    long t1 = System.nanoTime();
+                    startedAt[v] = t0 - start;
+                    finishedAt[v] = t1 - start;
+                    busy.add(t1 - t0);
+
+                    int count = 0;
+                    edges.reset(v);
+                    while (edges.next()) {
+                        int w = edges.target();
+                        if (pending.decrementAndGet(w) == 0) {
+                            if (count == ready.length) ready = Arrays.copyOf(ready, count * 2);
+                            ready[count++] = w;
+                        }
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        done.countDown();
+                        return;
+                    }
+
+                    int best = -1;
+                    for (int i = 0; i < count; i++) {
+                        if (best < 0 || priority[ready[i]] > priority[ready[best]]) best = i;
+                    }
+                    if (best < 0) return;
+                    int next = ready[best];
+                    ready[best] = ready[--count];
+                    for (int w : sortByPriority(Arrays.copyOf(ready, count), false)) {
+                        new Node(w).fork();
+                    }
+                    v = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Timing of one execution. Times are in nanoseconds; start and finish times are
+     * relative to the start of the execution.
+     */
+    public static class Report {
+        public final long makespanNanos;
+        /** Sum of the task run times over all workers. */
+        public final long busyNanos;
+        public final int parallelism;
+        public final long[] startedAt;
+        public final long[] finishedAt;
+
+        public Report(long makespanNanos, long busyNanos, int parallelism, long[] startedAt, long[] finishedAt) {
+            this.makespanNanos = makespanNanos;
+            this.busyNanos = busyNanos;
+            this.parallelism = parallelism;
+            this.startedAt = startedAt;
+            this.finishedAt = finishedAt;
+        }
+
+        public double makespanMillis() {
+            return makespanNanos / 1e6;
+        }
+
+        /**
+         * @return busy time / (makespan x workers), between 0 and 1
+         */
+        public double utilization() {
+            return makespanNanos == 0 ? 0 : (double) busyNanos / ((double) makespanNanos * parallelism);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("makespan = %.3f ms, busy = %.3f ms, workers = %d, utilization = %.1f%%",
+                    makespanMillis(), busyNanos / 1e6, parallelism, 100 * utilization());
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package graph.graph;
+
+import graph.metrics.Footprint;
+import graph.metrics.MemoryBudget;
+
+import java.util.Arrays;
+
+/**
+ * Read-only directed weighted graph with gap-encoded adjacency lists, for graphs
+ * whose CSR arrays do not fit comfortably in memory.
+ *
+ * All edges live in one byte stream; the record of vertex u starts at offsets[u]:
+ * <pre>
+ * varint degree | degree weights, packed | degree target gaps, varint
+ * </pre>
+ * Varints use 7 bits per byte, the high bit marking that more bytes follow.
+ * Targets are sorted; the first one is stored as the zig-zag encoded difference
+ * to u, each following one as the gap to its predecessor. After a
+ * locality-preserving relabeling (see {@code graph.relabel.Relabeling}) most
+ * gaps fit in one byte.
+ *
+ * Weights are stored as offsets from the smallest weight of the graph with the
+ * narrowest width of 0, 1, 2, 4, 8, 16 or 32 bits that holds the weight range,
+ * e.g. 4 bits for weights 1..9.
+ *
+ * Edges can only be read sequentially through {@link #cursor()}. Parallel edges
+ * are kept; the neighbours of a vertex are returned by target, not as given.
+ */
+public class CompressedGraph implements IntGraph {
+
+    private final int numVertices;
+    private final int numEdges;
+    private final int[] offsets;
+    private final byte[] adjacency;
+    private final int minWeight;
+    private final int bitsPerWeight;
+
+    private CompressedGraph(int numVertices, int numEdges, int[] offsets, byte[] adjacency,
+                            int minWeight, int bitsPerWeight) {
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.offsets = offsets;
+        this.adjacency = adjacency;
+        this.minWeight = minWeight;
+        this.bitsPerWeight = bitsPerWeight;
+    }
+
+    /**
+     * Encodes a CSR graph.
+     *
+     * @param g source graph
+     * @return compressed copy of g
+     * @throws IllegalArgumentException if the encoded stream exceeds 2 GB
+     */
+    public static CompressedGraph of(CsrGraph g) {
+        int n = g.getN();
+        int m = g.getNumEdges();
+
+        int minWeight = Integer.MAX_VALUE;
+        int maxWeight = Integer.MIN_VALUE;
+        for (int i = 0; i < m; i++) {
+            minWeight = Math.min(minWeight, g.weight(i));
+            maxWeight = Math.max(maxWeight, g.weight(i));
+        }
+        if (m == 0) minWeight = maxWeight = 0;
+        int bits = bitsFor((long) maxWeight - minWeight);
+
+        // Each row is sorted by target, carrying its weight in the low half.
+        int maxDegree = 0;
+        for (int u = 0; u < n; u++) maxDegree = Math.max(maxDegree, g.outDegree(u));
+        long[] row = new long[maxDegree];
+
+        int[] offsets = new int[n + 1];
+        ByteSink out = new ByteSink((int) Math.min(Integer.MAX_VALUE - 8, Math.max(16, 2L * m + n)));
+        for (int u = 0; u < n; u++) {
+            offsets[u] = out.size;
+            int degree = 0;
+            for (int i = g.begin(u); i < g.end(u); i++) {
+                row[degree++] = ((long) g.target(i) << 32) | (g.weight(i) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, degree);
+
+            out.writeVarint(degree);
+            int weightBytes = weightBytes(degree, bits);
+            out.ensure(weightBytes);
+            for (int k = 0; k < degree; k++) {
+                writeWeight(out.bytes, out.size, k, bits, (int) row[k] - minWeight);
+            }
+            out.size += weightBytes;
+
+            int prev = u;
+            for (int k = 0; k < degree; k++) {
+                int v = (int) (row[k] >>> 32);
+                out.writeVarint(k == 0 ? zigZag(v - prev) : v - prev);
+                prev = v;
+            }
+        }
+        offsets[n] = out.size;
+        return new CompressedGraph(n, m, offsets, out.toArray(), minWeight, bits);
+    }
+
+    /**
+     * Encodes a CSR graph after reserving its estimated size; the reservation is
+     * corrected to the encoded size afterwards.
+     *
+     * @throws IllegalStateException if the graph does not fit in the budget
+     */
+    public static CompressedGraph of(CsrGraph g, MemoryBudget budget) {
+        long estimate = Footprint.compressed(g.getN(), g.getNumEdges());
+        budget.reserve("compressed graph", estimate);
+        CompressedGraph compressed = of(g);
+        budget.release(estimate);
+        budget.reserve("compressed graph", Footprint.of(compressed));
+        return compressed;
+    }
+
+    /**
+     * Encodes an edge list, going through a temporary CSR copy.
+     *
+     * @param edges edge list
+     * @param n     number of vertices
+     * @return compressed graph
+     */
+    public static CompressedGraph of(EdgeList edges, int n) {
+        return of(edges.toCsr(n));
+    }
+
+    @Override
+    public int getN() {
+        return numVertices;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public int outDegree(int u) {
+        int pos = offsets[u];
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = adjacency[pos++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * @return bits stored per weight: 0 if all weights are equal
+     */
+    public int getBitsPerWeight() {
+        return bitsPerWeight;
+    }
+
+    /**
+     * @return bytes held by the arrays of this graph (vertex offsets and edge stream)
+     */
+    public long getPayloadBytes() {
+        return 4L * offsets.length + adjacency.length;
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Decodes one vertex record. Its saved state is the stream position, the number
+     * of edges read and the last target (the base of the next gap); the start of the
+     * weights is recomputed from the vertex on restore.
+     */
+    private final class Cursor implements EdgeCursor {
+        private int pos;
+        private int weightsAt;
+        private int degree;
+        private int read;
+        private int target;
+
+        @Override
+        public void reset(int u) {
+            pos = offsets[u];
+            degree = readVarint();
+            weightsAt = pos;
+            pos += weightBytes(degree, bitsPerWeight);
+            read = 0;
+            target = u;
+        }
+
+        @Override
+        public boolean next() {
+            if (read == degree) return false;
+            int gap = readVarint();
+            target += read == 0 ? unZigZag(gap) : gap;
+            read++;
+            return true;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return minWeight + readWeight(adjacency, weightsAt, read - 1, bitsPerWeight);
+        }
+
+        @Override
+        public int stateSize() {
+            return 3;
+        }
+
+        @Override
+        public void save(int[] state, int offset) {
+            state[offset] = pos;
+            state[offset + 1] = read;
+            state[offset + 2] = target;
+        }
+
+        @Override
+        public void restore(int u, int[] state, int offset) {
+            pos = offsets[u];
+            degree = readVarint();
+            weightsAt = pos;
+            pos = state[offset];
+            read = state[offset + 1];
+            target = state[offset + 2];
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = adjacency[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    // ---- encoding helpers ----
+
+    /**
+     * @return smallest width in {0, 1, 2, 4, 8, 16, 32} holding range
+     */
+    private static int bitsFor(long range) {
+        int bits = 0;
+        while (bits < 32 && range >= (1L << bits)) bits = bits == 0 ? 1 : bits * 2;
+        return bits;
+    }
+
+    private static int weightBytes(int degree, int bits) {
+        return (int) (((long) degree * bits + 7) >>> 3);
+    }
+
+    // Widths below 8 divide 8, so a value never straddles two bytes; wider values
+    // take whole bytes, little-endian.
+    private static void writeWeight(byte[] bytes, int at, int k, int bits, int value) {
+        if (bits == 0) return;
+        if (bits < 8) {
+            long bit = (long) k * bits;
+            bytes[at + (int) (bit >>> 3)] |= (byte) (value << (bit & 7));
+            return;
+        }
+        int p = at + k * (bits >>> 3);
+        for (int i = 0; i < bits; i += 8) bytes[p++] = (byte) (value >>> i);
+    }
+
+    private static int readWeight(byte[] bytes, int at, int k, int bits) {
+        if (bits == 0) return 0;
+        if (bits < 8) {
+            long bit = (long) k * bits;
+            return (bytes[at + (int) (bit >>> 3)] >>> (bit & 7)) & ((1 << bits) - 1);
+        }
+        int p = at + k * (bits >>> 3);
+        int value = 0;
+        for (int i = 0; i < bits; i += 8) value |= (bytes[p++] & 0xFF) << i;
+        return value;
+    }
+
+    private static int zigZag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unZigZag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Growable byte array for the edge stream.
+     */
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void ensure(int free) {
+            if (bytes.length - size >= free) return;
+            long capacity = Math.min(Math.max((long) bytes.length * 2, (long) size + free), Integer.MAX_VALUE - 8);
+            if (capacity - size < free)
+                throw new IllegalArgumentException("Compressed adjacency exceeds 2 GB");
+            bytes = Arrays.copyOf(bytes, (int) capacity);
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package graph.graph;
+
+import java.util.Arrays;
+
+/**
+ * Read-only directed weighted graph in compressed sparse row (CSR) layout.
+ * The outgoing edges of vertex u occupy slots [begin(u), end(u)) of the
+ * target and weight arrays, so a traversal touches only primitive arrays.
+ *
+ * Unlike {@link Graph}, parallel edges are kept as given.
+ */
+public class CsrGraph implements IntGraph {
+
+    private final int numVertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * @param numVertices number of vertices
+     * @param offsets     array of length numVertices + 1 with edge slot boundaries
+     * @param targets     edge targets, grouped by source vertex
+     * @param weights     edge weights, parallel to targets
+     */
+    public CsrGraph(int numVertices, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != numVertices + 1 || targets.length != weights.length
+                || offsets[numVertices] != targets.length)
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        this.numVertices = numVertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copies an adjacency-set graph into CSR layout.
+     *
+     * @param g source graph
+     * @return CSR copy of g
+     */
+    public static CsrGraph of(Graph g) {
+        int n = g.getN();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[g.getNumEdges()];
+        int[] weights = new int[g.getNumEdges()];
+        int slot = 0;
+        for (int u = 0; u < n; u++) {
+            offsets[u] = slot;
+            for (Edge e : g.getNeighbors(u)) {
+                targets[slot] = e.getTo();
+                weights[slot] = e.getWeight();
+                slot++;
+            }
+        }
+        offsets[n] = slot;
+        return new CsrGraph(n, offsets, targets, weights);
+    }
+
+    @Override
+    public int getN() {
+        return numVertices;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return targets.length;
+    }
+
+    /**
+     * @return first edge slot of vertex u
+     */
+    public int begin(int u) {
+        return offsets[u];
+    }
+
+    /**
+     * @return one past the last edge slot of vertex u
+     */
+    public int end(int u) {
+        return offsets[u + 1];
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    public int target(int slot) {
+        return targets[slot];
+    }
+
+    public int weight(int slot) {
+        return weights[slot];
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Cursor over one CSR row; its saved state is the next edge slot.
+     */
+    private final class Cursor implements EdgeCursor {
+        private int slot;
+        private int end;
+        private int target;
+        private int weight;
+
+        @Override
+        public void reset(int u) {
+            slot = offsets[u];
+            end = offsets[u + 1];
+        }
+
+        @Override
+        public boolean next() {
+            if (slot == end) return false;
+            target = targets[slot];
+            weight = weights[slot];
+            slot++;
+            return true;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+
+        @Override
+        public int stateSize() {
+            return 1;
+        }
+
+        @Override
+        public void save(int[] state, int offset) {
+            state[offset] = slot;
+        }
+
+        @Override
+        public void restore(int u, int[] state, int offset) {
+            slot = state[offset];
+            end = offsets[u + 1];
+        }
+    }
+
+    /**
+     * Builds the transpose of this graph (reversed edge directions), keeping weights.
+     *
+     * @return transposed graph in CSR layout
+     */
+    public CsrGraph transpose() {
+        int[] tOffsets = new int[numVertices + 1];
+        for (int t : targets) tOffsets[t + 1]++;
+        for (int v = 0; v < numVertices; v++) tOffsets[v + 1] += tOffsets[v];
+        int[] next = Arrays.copyOf(tOffsets, numVertices);
+        int[] tTargets = new int[targets.length];
+        int[] tWeights = new int[targets.length];
+        for (int u = 0; u < numVertices; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int slot = next[targets[i]]++;
+                tTargets[slot] = u;
+                tWeights[slot] = weights[i];
+            }
+        }
+        return new CsrGraph(numVertices, tOffsets, tTargets, tWeights);
+    }
+
+    /**
+     * Converts back to an adjacency-set {@link Graph}.
+     */
+    public Graph toGraph() {
+        Graph g = new Graph(numVertices);
+        for (int u = 0; u < numVertices; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                g.addEdge(u, targets[i], weights[i]);
+            }
+        }
+        return g;
+    }
+}
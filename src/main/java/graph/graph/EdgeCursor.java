@@ -0,0 +1,62 @@
+package graph.graph;
+
+/**
+ * Sequential reader over the outgoing edges of one vertex of an {@link IntGraph}.
+ *
+ * <pre>
+ * cursor.reset(u);
+ * while (cursor.next()) { use cursor.target(), cursor.weight() }
+ * </pre>
+ *
+ * Depth-first searches that leave a vertex and come back to it later save the
+ * cursor position into an int array ({@link #stateSize()} ints per vertex) and
+ * restore it instead of keeping one cursor object per vertex.
+ */
+public interface EdgeCursor {
+
+    /**
+     * Positions the cursor before the first outgoing edge of u.
+     */
+    void reset(int u);
+
+    /**
+     * Advances to the next edge.
+     *
+     * @return false if there are no more edges
+     */
+    boolean next();
+
+    int target();
+
+    int weight();
+
+    /**
+     * @return number of ints written by {@link #save(int[], int)}
+     */
+    int stateSize();
+
+    /**
+     * Stores the current position at state[offset .. offset + stateSize()).
+     */
+    void save(int[] state, int offset);
+
+    /**
+     * Continues iterating the edges of u from a position stored by {@link #save(int[], int)}.
+     */
+    void restore(int u, int[] state, int offset);
+
+    /**
+     * Length of an array holding the saved positions of vertices vertices, computed
+     * in long: with several ints per vertex, vertices * stateSize() overflows int
+     * long before vertices does.
+     *
+     * @throws IllegalArgumentException if the state does not fit in one Java array
+     */
+    static int stateLength(EdgeCursor cursor, int vertices) {
+        long ints = (long) vertices * cursor.stateSize();
+        if (ints > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Cursor state of " + vertices + " vertices x " + cursor.stateSize()
+                    + " ints does not fit in one array");
+        return (int) ints;
+    }
+}
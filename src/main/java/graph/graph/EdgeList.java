@@ -0,0 +1,193 @@
+package graph.graph;
+
+import graph.metrics.Footprint;
+import graph.metrics.MemoryBudget;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of directed weighted edges stored in three parallel int arrays.
+ * Used as the intermediate form between edge-list readers and the graph builders,
+ * so that loading a file never allocates one object per edge.
+ */
+public class EdgeList {
+
+    private int[] from;
+    private int[] to;
+    private int[] weight;
+    private int size;
+    private int maxVertex = -1;
+
+    public EdgeList() {
+        this(16);
+    }
+
+    /**
+     * @param capacity initial number of edges that fit without resizing
+     */
+    public EdgeList(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.weight = new int[capacity];
+    }
+
+    /**
+     * Appends a directed edge (u -> v) with weight w.
+     */
+    public void add(int u, int v, int w) {
+        if (u < 0 || v < 0)
+            throw new IllegalArgumentException("Invalid vertex index");
+        if (size == from.length) grow(size + 1);
+        from[size] = u;
+        to[size] = v;
+        weight[size] = w;
+        size++;
+        if (u > maxVertex) maxVertex = u;
+        if (v > maxVertex) maxVertex = v;
+    }
+
+    /**
+     * Appends all edges of another list, keeping their order.
+     */
+    public void addAll(EdgeList other) {
+        if (other.size == 0) return;
+        if (size + other.size > from.length) grow(size + other.size);
+        System.arraycopy(other.from, 0, from, size, other.size);
+        System.arraycopy(other.to, 0, to, size, other.size);
+        System.arraycopy(other.weight, 0, weight, size, other.size);
+        size += other.size;
+        if (other.maxVertex > maxVertex) maxVertex = other.maxVertex;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, from.length + (from.length >> 1));
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        weight = Arrays.copyOf(weight, capacity);
+    }
+
+    /**
+     * Declares that the graph has at least n vertices, including ones without edges.
+     */
+    public void reserveVertices(int n) {
+        if (n - 1 > maxVertex) maxVertex = n - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of edges that fit without resizing
+     */
+    public int capacity() {
+        return from.length;
+    }
+
+    public int getFrom(int i) {
+        return from[i];
+    }
+
+    public int getTo(int i) {
+        return to[i];
+    }
+
+    public int getWeight(int i) {
+        return weight[i];
+    }
+
+    /**
+     * @return the largest vertex index seen so far, or -1 if the list is empty
+     */
+    public int getMaxVertex() {
+        return maxVertex;
+    }
+
+    /**
+     * Smallest vertex count that can hold every edge of this list.
+     */
+    public int inferVertexCount() {
+        return maxVertex + 1;
+    }
+
+    /**
+     * Builds an adjacency-set {@link Graph} with {@link #inferVertexCount()} vertices.
+     */
+    public Graph toGraph() {
+        return toGraph(inferVertexCount());
+    }
+
+    /**
+     * Builds an adjacency-set {@link Graph}. Duplicate edges are dropped by the graph.
+     *
+     * @param n number of vertices, must cover every vertex of this list
+     */
+    public Graph toGraph(int n) {
+        checkVertexCount(n);
+        Graph g = new Graph(n);
+        for (int i = 0; i < size; i++) {
+            g.addEdge(from[i], to[i], weight[i]);
+        }
+        return g;
+    }
+
+    /**
+     * Builds an adjacency-set {@link Graph} after reserving its estimated size.
+     *
+     * @throws IllegalStateException if the graph does not fit in the budget
+     */
+    public Graph toGraph(int n, MemoryBudget budget) {
+        checkVertexCount(n);
+        budget.reserve("adjacency-set graph", Footprint.hashSetGraph(n, size));
+        return toGraph(n);
+    }
+
+    /**
+     * Builds a {@link CsrGraph} with {@link #inferVertexCount()} vertices.
+     */
+    public CsrGraph toCsr() {
+        return toCsr(inferVertexCount());
+    }
+
+    /**
+     * Builds a {@link CsrGraph}. Edges keep their relative order per source vertex.
+     *
+     * @param n number of vertices, must cover every vertex of this list
+     */
+    public CsrGraph toCsr(int n) {
+        checkVertexCount(n);
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[size];
+        int[] weights = new int[size];
+        for (int i = 0; i < size; i++) {
+            int slot = next[from[i]]++;
+            targets[slot] = to[i];
+            weights[slot] = weight[i];
+        }
+        return new CsrGraph(n, offsets, targets, weights);
+    }
+
+    /**
+     * Builds a {@link CsrGraph} after reserving its size.
+     *
+     * @throws IllegalStateException if the graph does not fit in the budget
+     */
+    public CsrGraph toCsr(int n, MemoryBudget budget) {
+        checkVertexCount(n);
+        budget.reserve("CSR graph", Footprint.csr(n, size));
+        return toCsr(n);
+    }
+
+    private void checkVertexCount(int n) {
+        if (n < inferVertexCount())
+            throw new IllegalArgumentException("Vertex count " + n + " does not cover vertex " + maxVertex);
+    }
+}
@@ -0,0 +1,21 @@
+package graph.graph;
+
+/**
+ * Read-only directed weighted graph with int vertices 0..n-1 whose edges are
+ * read through an {@link EdgeCursor}. Implemented by the primitive layouts
+ * ({@link CsrGraph}, {@link CompressedGraph}) so that the array-based algorithms
+ * can run on either of them.
+ */
+public interface IntGraph {
+
+    int getN();
+
+    int getNumEdges();
+
+    int outDegree(int u);
+
+    /**
+     * Creates a new cursor. Cursors are not thread-safe; use one per thread.
+     */
+    EdgeCursor cursor();
+}
@@ -0,0 +1,117 @@
+package graph.graph;
+
+import java.nio.IntBuffer;
+
+/**
+ * CSR graph whose offset, target and weight arrays are int buffers, typically views
+ * of a memory-mapped file. The layout is the same as {@link CsrGraph}; nothing is
+ * copied onto the heap, so the graph is usable as soon as the file is mapped and
+ * pages are loaded on first access.
+ */
+public class MappedCsrGraph implements IntGraph {
+
+    private final int numVertices;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+
+    /**
+     * @param numVertices number of vertices
+     * @param offsets     buffer of numVertices + 1 edge slot boundaries
+     * @param targets     edge targets, grouped by source vertex
+     * @param weights     edge weights, parallel to targets
+     */
+    public MappedCsrGraph(int numVertices, IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        if (offsets.limit() != numVertices + 1 || targets.limit() != weights.limit()
+                || offsets.get(numVertices) != targets.limit())
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        this.numVertices = numVertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int getN() {
+        return numVertices;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return targets.limit();
+    }
+
+    @Override
+    public int outDegree(int u) {
+        return offsets.get(u + 1) - offsets.get(u);
+    }
+
+    @Override
+    public EdgeCursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Copies the graph onto the heap.
+     */
+    public CsrGraph toCsr() {
+        int[] o = new int[numVertices + 1];
+        int[] t = new int[targets.limit()];
+        int[] w = new int[weights.limit()];
+        offsets.get(0, o);
+        targets.get(0, t);
+        weights.get(0, w);
+        return new CsrGraph(numVertices, o, t, w);
+    }
+
+    /**
+     * Cursor over one CSR row; its saved state is the next edge slot.
+     */
+    private final class Cursor implements EdgeCursor {
+        private int slot;
+        private int end;
+        private int target;
+        private int weight;
+
+        @Override
+        public void reset(int u) {
+            slot = offsets.get(u);
+            end = offsets.get(u + 1);
+        }
+
+        @Override
+        public boolean next() {
+            if (slot == end) return false;
+            target = targets.get(slot);
+            weight = weights.get(slot);
+            slot++;
+            return true;
+        }
+
+        @Override
+        public int target() {
+            return target;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+
+        @Override
+        public int stateSize() {
+            return 1;
+        }
+
+        @Override
+        public void save(int[] state, int offset) {
+            state[offset] = slot;
+        }
+
+        @Override
+        public void restore(int u, int[] state, int offset) {
+            slot = state[offset];
+            end = offsets.get(u + 1);
+        }
+    }
+}
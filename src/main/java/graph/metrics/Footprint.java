@@ -0,0 +1,202 @@
+package graph.metrics;
+
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.graph.MappedCsrGraph;
+import graph.scc.TarjanSCC;
+
+import java.util.List;
+
+/**
+ * Estimated retained heap bytes of the graph representations and results.
+ *
+ * Sizes assume a 64-bit HotSpot JVM with compressed references: 12-byte object
+ * headers, 16-byte array headers, 4-byte references and 8-byte alignment.
+ * Measuring methods ({@code of(...)}) walk an existing structure; the estimating
+ * methods predict the size of a structure from its vertex and edge counts, before
+ * it is built, so that a {@link MemoryBudget} can be checked first.
+ *
+ * Per edge, the adjacency-set {@link Graph} costs about 56 bytes (hash node and
+ * {@code Edge} object) plus its hash table, a {@link CsrGraph} 8 bytes and a
+ * {@link CompressedGraph} typically 2 to 5 bytes.
+ */
+public final class Footprint {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private static final long ARRAY_LIST = align(OBJECT_HEADER + 8 + REFERENCE);
+    private static final long HASH_SET = align(OBJECT_HEADER + REFERENCE);
+    private static final long HASH_MAP = align(OBJECT_HEADER + 4 * REFERENCE + 4 * 4);
+    private static final long HASH_NODE = align(OBJECT_HEADER + 4 + 3 * REFERENCE);
+    private static final long EDGE = align(OBJECT_HEADER + 3 * 4);
+    private static final long INTEGER = align(OBJECT_HEADER + 4);
+
+    private Footprint() {
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * @return bytes of an array of length elements of elementBytes each
+     */
+    public static long array(long length, int elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    public static long of(int[] values) {
+        return values == null ? 0 : array(values.length, 4);
+    }
+
+    public static long of(EdgeList edges) {
+        return align(OBJECT_HEADER + 3 * REFERENCE + 2 * 4) + 3 * array(edges.capacity(), 4);
+    }
+
+    public static long of(CsrGraph g) {
+        return csr(g.getN(), g.getNumEdges());
+    }
+
+    public static long of(CompressedGraph g) {
+        long offsets = g.getN() + 1L;
+        return align(OBJECT_HEADER + 4 * 4 + 2 * REFERENCE) + array(offsets, 4)
+                + array(g.getPayloadBytes() - 4 * offsets, 1);
+    }
+
+    /**
+     * Heap bytes of any primitive layout. A {@link MappedCsrGraph} keeps its arrays
+     * off the heap, in the page cache, so only the object itself is counted.
+     */
+    public static long of(IntGraph g) {
+        if (g instanceof CsrGraph) return of((CsrGraph) g);
+        if (g instanceof CompressedGraph) return of((CompressedGraph) g);
+        if (g instanceof MappedCsrGraph) return align(OBJECT_HEADER + 4 + 3 * REFERENCE);
+        throw new IllegalArgumentException("Unknown graph layout " + g.getClass().getName());
+    }
+
+    /**
+     * Walks the adjacency sets of a {@link Graph}.
+     */
+    public static long of(Graph g) {
+        int n = g.getN();
+        long bytes = align(OBJECT_HEADER + 2 * 4 + REFERENCE) + ARRAY_LIST + array(n, REFERENCE);
+        for (int u = 0; u < n; u++) {
+            bytes += adjacencySet(g.getNeighbors(u).size());
+        }
+        return bytes;
+    }
+
+    /**
+     * SCC map, topological order, the per-component member lists with their boxed
+     * vertices and, if present, the condensation graph.
+     */
+    public static long of(TarjanSCC.Result result) {
+        long bytes = align(OBJECT_HEADER + 5 * REFERENCE + 4) + of(result.sccMap) + of(result.topoOrder);
+        bytes += ARRAY_LIST + array(arrayListCapacity(result.sccs.size()), REFERENCE);
+        for (List<Integer> component : result.sccs) {
+            bytes += ARRAY_LIST + array(arrayListCapacity(component.size()), REFERENCE);
+            for (int v : component) {
+                if (v > 127) bytes += INTEGER;  // Integer.valueOf caches -128..127
+            }
+        }
+        if (result.condensation != null) bytes += of(result.condensation);
+        return bytes;
+    }
+
+    /**
+     * Estimated bytes of an {@link EdgeList} holding edges edges.
+     */
+    public static long edgeList(long edges) {
+        return align(OBJECT_HEADER + 3 * REFERENCE + 2 * 4) + 3 * array(edges, 4);
+    }
+
+    /**
+     * Estimated bytes of an adjacency-set {@link Graph}, assuming out-degrees close to the average.
+     */
+    public static long hashSetGraph(int n, long edges) {
+        long bytes = align(OBJECT_HEADER + 2 * 4 + REFERENCE) + ARRAY_LIST + array(n, REFERENCE);
+        if (n == 0) return bytes;
+        long degree = edges / n;
+        long extra = edges % n;    // vertices with one more edge
+        return bytes + (n - extra) * adjacencySet((int) degree) + extra * adjacencySet((int) degree + 1);
+    }
+
+    public static long csr(int n, long edges) {
+        return align(OBJECT_HEADER + 4 + 3 * REFERENCE) + array(n + 1L, 4) + 2 * array(edges, 4);
+    }
+
+    /**
+     * Estimated bytes of a {@link CompressedGraph}: one degree byte per vertex and
+     * four bytes per edge, the size of shuffled vertex IDs with small weights.
+     * Locality-preserving IDs (see --relabel) make it smaller.
+     */
+    public static long compressed(int n, long edges) {
+        return align(OBJECT_HEADER + 4 * 4 + 2 * REFERENCE) + array(n + 1L, 4) + array(n + 4 * edges, 1);
+    }
+
+    /**
+     * Working arrays of {@link graph.scc.IterativeTarjanSCC} and the SCC map, not counting the member lists.
+     *
+     * @param cursorState ints of saved cursor state per vertex ({@link graph.graph.EdgeCursor#stateSize()})
+     */
+    public static long iterativeScc(int n, int cursorState) {
+        return 5 * array(n, 4) + array(n, 1) + array((long) n * cursorState, 4);
+    }
+
+    /**
+     * Upper estimate of a {@link TarjanSCC.Result} without condensation, reached
+     * when every vertex is its own component.
+     */
+    public static long sccResult(int n) {
+        return align(OBJECT_HEADER + 5 * REFERENCE + 4) + 2 * array(n, 4)
+                + ARRAY_LIST + array(arrayListCapacity(n), REFERENCE)
+                + n * (ARRAY_LIST + array(arrayListCapacity(1), REFERENCE) + INTEGER);
+    }
+
+    /**
+     * Distance arrays of DAG-SP passes from several sources, one int per node each.
+     */
+    public static long distances(int n, int sources) {
+        return sources * array(n, 4);
+    }
+
+    /**
+     * @return bytes as a short human-readable string, e.g. "12.4 MB"
+     */
+    public static String format(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        if (bytes < 1024L * 1024 * 1024) return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    private static long adjacencySet(int size) {
+        long bytes = HASH_SET + HASH_MAP;
+        if (size > 0) bytes += array(hashTableCapacity(size), REFERENCE) + size * (HASH_NODE + EDGE);
+        return bytes;
+    }
+
+    /**
+     * Table length of a default HashMap after size insertions (load factor 0.75).
+     */
+    private static long hashTableCapacity(int size) {
+        long capacity = 16;
+        while (size > capacity * 3 / 4) capacity *= 2;
+        return capacity;
+    }
+
+    /**
+     * Backing array length of a default ArrayList after size additions.
+     */
+    private static long arrayListCapacity(int size) {
+        if (size == 0) return 0;
+        long capacity = 10;
+        while (capacity < size) capacity += capacity >> 1;
+        return capacity;
+    }
+}
@@ -0,0 +1,100 @@
+package graph.metrics;
+
+/**
+ * Upper bound on the heap bytes that graph structures and results may hold at
+ * once, checked against {@link Footprint} estimates before a structure is built.
+ *
+ * Builders call {@link #reserve(String, long)} before allocating, which fails fast
+ * with an {@link IllegalStateException} instead of running into an
+ * OutOfMemoryError half-way; callers that can fall back to a more compact
+ * representation ask {@link #fits(long)} first. Structures that are dropped give
+ * their bytes back with {@link #release(long)}.
+ */
+public class MemoryBudget {
+
+    private final long limit;
+    private long used;
+
+    /**
+     * @param limit bytes available
+     */
+    public MemoryBudget(long limit) {
+        if (limit < 0) throw new IllegalArgumentException("Memory budget must be >= 0, got " + limit);
+        this.limit = limit;
+    }
+
+    public static MemoryBudget unlimited() {
+        return new MemoryBudget(Long.MAX_VALUE);
+    }
+
+    /**
+     * Parses a size such as "800000", "512k", "64m" or "2g" (powers of 1024).
+     *
+     * @return the size in bytes
+     * @throws IllegalArgumentException if the value is not a size
+     */
+    public static long parseSize(String value) {
+        String v = value.trim().toLowerCase();
+        long unit = 1;
+        if (v.endsWith("k")) unit = 1L << 10;
+        else if (v.endsWith("m")) unit = 1L << 20;
+        else if (v.endsWith("g")) unit = 1L << 30;
+        if (unit > 1) v = v.substring(0, v.length() - 1);
+        try {
+            long amount = Long.parseLong(v);
+            if (amount >= 0 && amount <= Long.MAX_VALUE / unit) return amount * unit;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Memory size expected (e.g. 512m, 2g), got: " + value);
+    }
+
+    public boolean isUnlimited() {
+        return limit == Long.MAX_VALUE;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public long getUsed() {
+        return used;
+    }
+
+    public long remaining() {
+        return limit - used;
+    }
+
+    /**
+     * @return true if bytes more can be reserved
+     */
+    public boolean fits(long bytes) {
+        return bytes <= remaining();
+    }
+
+    /**
+     * Reserves bytes for a structure about to be built.
+     *
+     * @param what name of the structure, for the error message
+     * @throws IllegalStateException if the budget does not have bytes left
+     */
+    public void reserve(String what, long bytes) {
+        if (!fits(bytes))
+            throw new IllegalStateException("Memory budget exceeded: " + what + " needs ~" + Footprint.format(bytes)
+                    + ", " + Footprint.format(remaining()) + " left of " + Footprint.format(limit));
+        used += bytes;
+    }
+
+    /**
+     * Returns bytes of a structure that is no longer held.
+     */
+    public void release(long bytes) {
+        used = Math.max(0, used - bytes);
+    }
+
+    @Override
+    public String toString() {
+        return isUnlimited() ? "unlimited (" + Footprint.format(used) + " used)"
+                : Footprint.format(used) + " used of " + Footprint.format(limit);
+    }
+}
@@ -4,19 +4,49 @@ public class Metrics {
     private long startTime;
     private long endTime;
     private int counter;
+    private int counterAtStart;
+    private PhaseEvent event;
 
     public void start() {
         startTime = System.nanoTime();
     }
 
+    /**
+     * Starts timing a named phase and, while a flight recording is running, a
+     * {@link PhaseEvent} for it that {@link #stop()} commits.
+     *
+     * @param vertices vertices of the phase's input
+     * @param edges    edges of the phase's input
+     */
+    public void start(String phase, String variant, int vertices, long edges) {
+        event = PhaseEvent.start(phase, variant, vertices, edges);
+        counterAtStart = counter;
+        start();
+    }
+
     public void stop() {
         endTime = System.nanoTime();
+        if (event != null) {
+            event.finish(counter - counterAtStart);
+            event = null;
+        }
+    }
+
+    /**
+     * Sets the input size of the current phase when it is known only at the end.
+     */
+    public void setPhaseSize(int vertices, long edges) {
+        if (event != null) event.setSize(vertices, edges);
     }
 
     public void incrementCounter(String name) {
         counter++;
     }
 
+    public void incrementCounter(String name, int amount) {
+        counter += amount;
+    }
+
     public long getElapsedTime() {
         return endTime - startTime;
     }
@@ -0,0 +1,82 @@
+package graph.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for one algorithm phase (graph load, Tarjan DFS,
+ * condensation, topological sort, a DAG-SP pass, ...).
+ *
+ * Start a recording with {@code -XX:StartFlightRecording} and the phases appear as
+ * "graph.Phase" events next to GC and allocation events. When the event is not
+ * enabled, {@link #start(String, String, int, long)} only allocates an empty event:
+ * no field is set, no timestamp is taken and nothing is written.
+ *
+ * Algorithms that report through {@link Metrics} get their event from
+ * {@link Metrics#start(String, String, int, long)}; code without a Metrics
+ * instance uses this class directly.
+ */
+@Name("graph.Phase")
+@Label("Graph Phase")
+@Category({"Graph Analysis"})
+@Description("One phase of a graph algorithm with its input size and work counter")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Variant")
+    String variant;
+
+    @Label("Vertices")
+    int vertices;
+
+    @Label("Edges")
+    long edges;
+
+    @Label("Counter")
+    @Description("Work done in the phase: DFS visits and edges, relaxations, queue operations, ...")
+    long counter;
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param vertices vertices of the input, 0 if not known yet (see {@link #setSize(int, long)})
+     * @param edges    edges of the input
+     */
+    public static PhaseEvent start(String phase, String variant, int vertices, long edges) {
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase;
+            event.variant = variant;
+            event.vertices = vertices;
+            event.edges = edges;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Sets the input size of a phase that only knows it at the end, such as a load.
+     */
+    public void setSize(int vertices, long edges) {
+        this.vertices = vertices;
+        this.edges = edges;
+    }
+
+    /**
+     * Ends the phase and commits the event if it is enabled and over its threshold.
+     */
+    public void finish(long counter) {
+        end();
+        if (shouldCommit()) {
+            this.counter = counter;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package graph.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential reader for files produced by {@link BinaryResultWriter}.
+ *
+ * <pre>
+ * try (BinaryResultReader r = BinaryResultReader.open(path)) {
+ *     while (r.next()) { ... r.getTag(), r.getLabel(), r.getValues() ... }
+ * }
+ * </pre>
+ */
+public class BinaryResultReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buf;
+
+    private int tag;
+    private String label;
+    private int source;
+    private int[] values;
+
+    private BinaryResultReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < 8 || buf.getInt() != BinaryResultWriter.MAGIC)
+            throw new IOException("Not a binary result file");
+        int version = buf.getInt();
+        if (version != BinaryResultWriter.VERSION)
+            throw new IOException("Unsupported result file version " + version);
+    }
+
+    public static BinaryResultReader open(Path path) throws IOException {
+        return new BinaryResultReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Advances to the next section.
+     *
+     * @return false at the end marker
+     */
+    public boolean next() throws IOException {
+        if (buf.remaining() < 4) throw new IOException("Truncated result file");
+        tag = buf.getInt();
+        if (tag == BinaryResultWriter.END) return false;
+        byte[] name = new byte[buf.getInt()];
+        buf.get(name);
+        label = new String(name, StandardCharsets.UTF_8);
+        source = buf.getInt();
+        values = new int[buf.getInt()];
+        buf.asIntBuffer().get(values);
+        buf.position(buf.position() + values.length * 4);
+        return true;
+    }
+
+    public int getTag() {
+        return tag;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the source vertex for DISTANCES, the component count for SCC_MAP, 0 otherwise
+     */
+    public int getSource() {
+        return source;
+    }
+
+    public int[] getValues() {
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
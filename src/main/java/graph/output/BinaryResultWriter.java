@@ -0,0 +1,88 @@
+package graph.output;
+
+import graph.data.BufferedChannelWriter;
+import graph.scc.TarjanSCC;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes results in a compact little-endian binary format:
+ *
+ * <pre>
+ * header:  int MAGIC, int VERSION
+ * section: int tag, int labelLength, byte[label] (UTF-8), int source, int count, int[count] values
+ * footer:  int END
+ * </pre>
+ *
+ * Tags: GRAPH (values = [n, edges]), SCC_MAP (source = component count, values = sccMap),
+ * ORDER (vertex sequence), DISTANCES (distance array, sentinels kept).
+ * Read back with {@link BinaryResultReader}.
+ */
+public class BinaryResultWriter implements ResultWriter {
+
+    public static final int MAGIC = 0x53455247; // "GRES" in little-endian bytes
+    public static final int VERSION = 1;
+
+    public static final int END = 0;
+    public static final int GRAPH = 1;
+    public static final int SCC_MAP = 2;
+    public static final int ORDER = 3;
+    public static final int DISTANCES = 4;
+
+    private final BufferedChannelWriter out;
+
+    public BinaryResultWriter(BufferedChannelWriter out) throws IOException {
+        this.out = out;
+        out.writeInt(MAGIC).writeInt(VERSION);
+    }
+
+    public static BinaryResultWriter open(Path path) throws IOException {
+        return new BinaryResultWriter(BufferedChannelWriter.open(path));
+    }
+
+    private void header(int tag, String label, int source, int count) throws IOException {
+        byte[] name = label.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(tag).writeInt(name.length);
+        for (byte b : name) out.writeByte(b);
+        out.writeInt(source).writeInt(count);
+    }
+
+    @Override
+    public void writeGraphInfo(int n, int edges) throws IOException {
+        header(GRAPH, "graph", 0, 2);
+        out.writeInt(n).writeInt(edges);
+    }
+
+    @Override
+    public void writeScc(TarjanSCC.Result result) throws IOException {
+        header(SCC_MAP, "sccMap", result.sccCount, result.sccMap.length);
+        out.writeInts(result.sccMap, 0, result.sccMap.length);
+    }
+
+    @Override
+    public void writeOrder(String label, List<Integer> order) throws IOException {
+        header(ORDER, label, 0, order.size());
+        for (int v : order) out.writeInt(v);
+    }
+
+    @Override
+    public void writeOrder(String label, int[] order) throws IOException {
+        header(ORDER, label, 0, order.length);
+        out.writeInts(order, 0, order.length);
+    }
+
+    @Override
+    public void writeDistances(String label, int source, int[] dist) throws IOException {
+        header(DISTANCES, label, source, dist.length);
+        out.writeInts(dist, 0, dist.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.writeInt(END);
+        out.close();
+    }
+}
@@ -0,0 +1,77 @@
+package graph.output;
+
+import graph.scc.TarjanSCC;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prints complete results to the console. Intended for small graphs only;
+ * use {@link SummaryResultWriter} or a file writer for large ones.
+ */
+public class ConsoleResultWriter implements ResultWriter {
+
+    private final PrintStream out;
+    private TarjanSCC.Result scc;
+
+    public ConsoleResultWriter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeGraphInfo(int n, int edges) {
+        out.printf("Graph loaded: %d vertices, %d edges%n", n, edges);
+    }
+
+    @Override
+    public void writeScc(TarjanSCC.Result result) {
+        this.scc = result;
+        out.println("\n=== SCC (Tarjan) ===");
+        out.printf("Found %d SCC(s)\n", result.sccCount);
+        for (int i = 0; i < result.sccs.size(); i++) {
+            List<Integer> comp = result.sccs.get(i);
+            out.printf("SCC #%d: %s (size=%d)\n", i, comp, comp.size());
+        }
+        if (result.condensation != null) {
+            out.println("Condensation DAG nodes: " + result.condensation.getN());
+        }
+    }
+
+    @Override
+    public void writeOrder(String label, List<Integer> order) {
+        if (label.equals("topoOrder")) {
+            out.println("\n=== Topological Sort (Condensation DAG) ===");
+            out.println("Topological order of components: " + order);
+            if (scc != null) {
+                // Derived order of original nodes
+                List<Integer> derivedOrder = new ArrayList<>();
+                for (int comp : order) {
+                    derivedOrder.addAll(scc.sccs.get(comp));
+                }
+                out.println("Derived order of original nodes after SCC compression: " + derivedOrder);
+            }
+        } else {
+            out.println(label + ": " + order);
+        }
+    }
+
+    @Override
+    public void writeOrder(String label, int[] order) {
+        List<Integer> list = new ArrayList<>(order.length);
+        for (int v : order) list.add(v);
+        writeOrder(label, list);
+    }
+
+    @Override
+    public void writeDistances(String label, int source, int[] dist) {
+        if (source < 0) out.printf("%s: %s\n", label, Arrays.toString(dist));
+        else out.printf("%s distances from source %d: %s\n", label, source, Arrays.toString(dist));
+    }
+
+    @Override
+    public void close() {
+        out.flush();
+    }
+}
@@ -0,0 +1,116 @@
+package graph.output;
+
+import graph.data.BufferedChannelWriter;
+import graph.scc.TarjanSCC;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Streams results as a single JSON object, one top-level key per result:
+ *
+ * {"graph":{"n":..,"edges":..},
+ *  "scc":{"count":..,"sccMap":[..],"components":[[..],..]},
+ *  "topoOrder":[..],
+ *  "shortest":{"source":0,"dist":[0,3,null,..]}}
+ *
+ * Unreachable distances are written as null.
+ */
+public class JsonResultWriter implements ResultWriter {
+
+    private final BufferedChannelWriter out;
+    private boolean first = true;
+
+    public JsonResultWriter(BufferedChannelWriter out) throws IOException {
+        this.out = out;
+        out.writeByte('{');
+    }
+
+    public static JsonResultWriter open(Path path) throws IOException {
+        return new JsonResultWriter(BufferedChannelWriter.open(path));
+    }
+
+    private void key(String name) throws IOException {
+        if (!first) out.writeByte(',');
+        first = false;
+        out.writeByte('\n').writeByte('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') out.writeByte('\\');
+            out.writeByte(c);
+        }
+        out.writeAscii("\":");
+    }
+
+    @Override
+    public void writeGraphInfo(int n, int edges) throws IOException {
+        key("graph");
+        out.writeAscii("{\"n\":").writeDecimal(n).writeAscii(",\"edges\":").writeDecimal(edges).writeByte('}');
+    }
+
+    @Override
+    public void writeScc(TarjanSCC.Result result) throws IOException {
+        key("scc");
+        out.writeAscii("{\"count\":").writeDecimal(result.sccCount);
+        out.writeAscii(",\"sccMap\":");
+        writeArray(result.sccMap);
+        out.writeAscii(",\"components\":[");
+        for (int i = 0; i < result.sccs.size(); i++) {
+            if (i > 0) out.writeByte(',');
+            writeList(result.sccs.get(i));
+        }
+        out.writeAscii("]}");
+    }
+
+    @Override
+    public void writeOrder(String label, List<Integer> order) throws IOException {
+        key(label);
+        writeList(order);
+    }
+
+    @Override
+    public void writeOrder(String label, int[] order) throws IOException {
+        key(label);
+        writeArray(order);
+    }
+
+    @Override
+    public void writeDistances(String label, int source, int[] dist) throws IOException {
+        key(label);
+        out.writeAscii("{\"source\":").writeDecimal(source).writeAscii(",\"dist\":[");
+        for (int i = 0; i < dist.length; i++) {
+            if (i > 0) out.writeByte(',');
+            int d = dist[i];
+            if (d == Integer.MAX_VALUE || d == Integer.MIN_VALUE) out.writeAscii("null");
+            else out.writeDecimal(d);
+        }
+        out.writeAscii("]}");
+    }
+
+    private void writeArray(int[] values) throws IOException {
+        out.writeByte('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.writeByte(',');
+            out.writeDecimal(values[i]);
+        }
+        out.writeByte(']');
+    }
+
+    private void writeList(List<Integer> values) throws IOException {
+        out.writeByte('[');
+        boolean firstValue = true;
+        for (int v : values) {
+            if (!firstValue) out.writeByte(',');
+            firstValue = false;
+            out.writeDecimal(v);
+        }
+        out.writeByte(']');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.writeAscii("\n}\n");
+        out.close();
+    }
+}
@@ -0,0 +1,61 @@
+package graph.output;
+
+import graph.dagsp.CriticalPathMethod;
+import graph.scc.TarjanSCC;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Output stage for analysis results. Implementations stream each result as it
+ * is produced instead of building whole-result Strings.
+ */
+public interface ResultWriter extends AutoCloseable {
+
+    /**
+     * Records the size of the analysed graph.
+     */
+    void writeGraphInfo(int n, int edges) throws IOException;
+
+    /**
+     * Writes SCC membership (sccMap and components) and the condensation size.
+     */
+    void writeScc(TarjanSCC.Result result) throws IOException;
+
+    /**
+     * Writes a vertex sequence, e.g. a topological order ("topoOrder") or a path ("criticalPath").
+     */
+    void writeOrder(String label, List<Integer> order) throws IOException;
+
+    /**
+     * Same as {@link #writeOrder(String, List)} for a primitive order.
+     */
+    void writeOrder(String label, int[] order) throws IOException;
+
+    /**
+     * Writes a distance array computed from one source. Unreachable entries keep
+     * their Integer.MAX_VALUE / Integer.MIN_VALUE sentinels in the array.
+     */
+    void writeDistances(String label, int source, int[] dist) throws IOException;
+
+    /**
+     * Writes a CPM schedule as per-vertex arrays ("earliestStart", "latestStart", "slack",
+     * with source -1 as they do not depend on one source), the critical vertices and the
+     * critical edges as a flat from/to sequence ("criticalEdges").
+     */
+    default void writeSchedule(CriticalPathMethod.Schedule schedule) throws IOException {
+        writeDistances("earliestStart", -1, schedule.earliestStart);
+        writeDistances("latestStart", -1, schedule.latestStart);
+        writeDistances("slack", -1, schedule.slack);
+        writeOrder("criticalVertices", schedule.criticalVertices);
+        int[] edges = new int[2 * schedule.criticalEdges.size()];
+        for (int i = 0; i < schedule.criticalEdges.size(); i++) {
+            edges[2 * i] = schedule.criticalEdges.getFrom(i);
+            edges[2 * i + 1] = schedule.criticalEdges.getTo(i);
+        }
+        writeOrder("criticalEdges", edges);
+    }
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,33 @@
+package graph.output;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Creates a {@link ResultWriter} from a command-line output spec:
+ *
+ * - "console"        full listing on stdout (default)
+ * - "summary"        counts and ranges only on stdout
+ * - "json:PATH"      streaming JSON file
+ * - "binary:PATH"    compact little-endian binary file (see {@link BinaryResultWriter})
+ */
+public final class ResultWriters {
+
+    private ResultWriters() {
+    }
+
+    public static ResultWriter open(String spec) throws IOException {
+        if (spec == null || spec.equals("console")) return new ConsoleResultWriter(System.out);
+        if (spec.equals("summary")) return new SummaryResultWriter(System.out);
+
+        int colon = spec.indexOf(':');
+        if (colon > 0 && colon < spec.length() - 1) {
+            String kind = spec.substring(0, colon);
+            Path path = Path.of(spec.substring(colon + 1));
+            if (kind.equals("json")) return JsonResultWriter.open(path);
+            if (kind.equals("binary")) return BinaryResultWriter.open(path);
+        }
+        throw new IllegalArgumentException("Unknown output spec: " + spec
+                + " (expected console, summary, json:PATH or binary:PATH)");
+    }
+}
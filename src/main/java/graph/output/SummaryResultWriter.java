@@ -0,0 +1,82 @@
+package graph.output;
+
+import graph.scc.TarjanSCC;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Prints one line per result with counts and value ranges instead of the full data.
+ * Output size is independent of the graph size.
+ */
+public class SummaryResultWriter implements ResultWriter {
+
+    private final PrintStream out;
+
+    public SummaryResultWriter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeGraphInfo(int n, int edges) {
+        out.printf("Graph: %d vertices, %d edges%n", n, edges);
+    }
+
+    @Override
+    public void writeScc(TarjanSCC.Result result) {
+        int largest = 0;
+        int singletons = 0;
+        for (List<Integer> comp : result.sccs) {
+            largest = Math.max(largest, comp.size());
+            if (comp.size() == 1) singletons++;
+        }
+        out.printf("SCC: %d components, largest = %d, singletons = %d%s%n",
+                result.sccCount, largest, singletons,
+                result.condensation == null ? "" : ", condensation edges = " + result.condensation.getNumEdges());
+    }
+
+    @Override
+    public void writeOrder(String label, List<Integer> order) {
+        if (order.isEmpty()) {
+            out.printf("%s: empty%n", label);
+        } else {
+            out.printf("%s: length = %d, first = %d, last = %d%n",
+                    label, order.size(), order.get(0), order.get(order.size() - 1));
+        }
+    }
+
+    @Override
+    public void writeOrder(String label, int[] order) {
+        if (order.length == 0) {
+            out.printf("%s: empty%n", label);
+        } else {
+            out.printf("%s: length = %d, first = %d, last = %d%n",
+                    label, order.length, order[0], order[order.length - 1]);
+        }
+    }
+
+    @Override
+    public void writeDistances(String label, int source, int[] dist) {
+        int reachable = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int d : dist) {
+            if (d == Integer.MAX_VALUE || d == Integer.MIN_VALUE) continue;
+            reachable++;
+            min = Math.min(min, d);
+            max = Math.max(max, d);
+        }
+        String from = source < 0 ? label : label + " from " + source;
+        if (reachable == 0) {
+            out.printf("%s: no reachable vertices%n", from);
+        } else {
+            out.printf("%s: reachable = %d/%d, min = %d, max = %d%n",
+                    from, reachable, dist.length, min, max);
+        }
+    }
+
+    @Override
+    public void close() {
+        out.flush();
+    }
+}
@@ -0,0 +1,295 @@
+package graph.relabel;
+
+import graph.dagsp.CriticalPathMethod;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.scc.TarjanSCC;
+import graph.topo.TopoSort;
+import graph.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A permutation of vertex IDs chosen to improve memory locality of traversals.
+ *
+ * Algorithms run on the graph returned by {@link #apply(CsrGraph)}, where vertices
+ * that are visited close together in time also sit close together in the per-vertex
+ * arrays (disc/low/dist) and in the adjacency storage. Results are then translated
+ * back to the original IDs with the toOriginal methods.
+ *
+ * Available orders:
+ * - {@link #bfs(CsrGraph)}: breadth-first discovery order
+ * - {@link #reverseCuthillMcKee(CsrGraph)}: BFS visiting low-degree neighbours first, reversed
+ * - {@link #byDegree(CsrGraph)}: highest total degree first
+ * - {@link #topological(CsrGraph)}: topological order (DAGs only)
+ */
+public class Relabeling {
+
+    private final int[] newId;  // original vertex -> relabeled vertex
+    private final int[] oldId;  // relabeled vertex -> original vertex
+
+    /**
+     * @param order original vertex IDs listed in their new order (a permutation of 0..n-1)
+     */
+    public Relabeling(int[] order) {
+        int n = order.length;
+        this.oldId = order.clone();
+        this.newId = new int[n];
+        Arrays.fill(newId, -1);
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            if (v < 0 || v >= n || newId[v] != -1)
+                throw new IllegalArgumentException("Order is not a permutation of 0.." + (n - 1));
+            newId[v] = i;
+        }
+    }
+
+    /**
+     * Identity relabeling of n vertices.
+     */
+    public static Relabeling identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        return new Relabeling(order);
+    }
+
+    /**
+     * Breadth-first discovery order over outgoing edges, restarting from the lowest
+     * unvisited vertex when a search runs out.
+     */
+    public static Relabeling bfs(CsrGraph g) {
+        return new Relabeling(breadthFirst(g, false));
+    }
+
+    /**
+     * Reverse Cuthill–McKee: each search starts at an unvisited vertex of minimum degree
+     * and enqueues neighbours in increasing degree; the final order is reversed.
+     * Edge directions are ignored when choosing neighbours, as in the symmetric original.
+     */
+    public static Relabeling reverseCuthillMcKee(CsrGraph g) {
+        int[] order = breadthFirst(g, true);
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return new Relabeling(order);
+    }
+
+    /**
+     * Highest total (in + out) degree first, so the hot per-vertex state of hubs shares cache lines.
+     */
+    public static Relabeling byDegree(CsrGraph g) {
+        int n = g.getN();
+        int[] degree = totalDegree(g);
+        int[] order = sortByKey(n, degree, true);
+        return new Relabeling(order);
+    }
+
+    /**
+     * Topological order, so DAG sweeps walk the per-vertex arrays front to back.
+     *
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public static Relabeling topological(CsrGraph g) {
+        TopoSort.Result topo = new TopoSort(g, new Metrics()).dfs();
+        if (!topo.isAcyclic())
+            throw new IllegalArgumentException("Topological relabeling needs a DAG, found cycle " + topo.describeCycle());
+        return new Relabeling(topo.order);
+    }
+
+    /**
+     * Creates a relabeling by name: "bfs", "rcm", "degree" or "topo".
+     */
+    public static Relabeling byName(String name, CsrGraph g) {
+        switch (name) {
+            case "bfs": return bfs(g);
+            case "rcm": return reverseCuthillMcKee(g);
+            case "degree": return byDegree(g);
+            case "topo": return topological(g);
+            default: throw new IllegalArgumentException("Unknown relabeling: " + name);
+        }
+    }
+
+    public int size() {
+        return newId.length;
+    }
+
+    public int toNew(int originalVertex) {
+        return newId[originalVertex];
+    }
+
+    public int toOriginal(int relabeledVertex) {
+        return oldId[relabeledVertex];
+    }
+
+    /**
+     * Builds the relabeled graph. Each neighbour list is sorted by new ID so that
+     * a scan of it moves forward through the per-vertex arrays.
+     */
+    public CsrGraph apply(CsrGraph g) {
+        int n = g.getN();
+        if (n != newId.length)
+            throw new IllegalArgumentException("Relabeling of " + newId.length + " vertices applied to graph of " + n);
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[g.getNumEdges()];
+        int[] weights = new int[g.getNumEdges()];
+        int slot = 0;
+        long[] scratch = new long[0];
+        for (int v = 0; v < n; v++) {
+            int u = oldId[v];
+            offsets[v] = slot;
+            int degree = g.outDegree(u);
+            if (scratch.length < degree) scratch = new long[Math.max(degree, scratch.length * 2)];
+            // Pack (new target, edge slot) to sort the list by target while keeping the weight.
+            for (int k = 0; k < degree; k++) {
+                int i = g.begin(u) + k;
+                scratch[k] = ((long) newId[g.target(i)] << 32) | i;
+            }
+            Arrays.sort(scratch, 0, degree);
+            for (int k = 0; k < degree; k++) {
+                targets[slot] = (int) (scratch[k] >>> 32);
+                weights[slot] = g.weight((int) scratch[k]);
+                slot++;
+            }
+        }
+        offsets[n] = slot;
+        return new CsrGraph(n, offsets, targets, weights);
+    }
+
+    /**
+     * Translates a per-vertex array (sccMap, distances, ...) indexed by relabeled vertex
+     * into one indexed by original vertex. The values themselves are kept.
+     */
+    public int[] toOriginalIndex(int[] valuesByNewId) {
+        int[] result = new int[valuesByNewId.length];
+        for (int v = 0; v < result.length; v++) {
+            result[oldId[v]] = valuesByNewId[v];
+        }
+        return result;
+    }
+
+    /**
+     * Translates a sequence of relabeled vertex IDs (an order or a path) to original IDs.
+     */
+    public int[] toOriginalIds(int[] relabeledVertices) {
+        int[] result = new int[relabeledVertices.length];
+        for (int i = 0; i < result.length; i++) result[i] = oldId[relabeledVertices[i]];
+        return result;
+    }
+
+    public List<Integer> toOriginalIds(List<Integer> relabeledVertices) {
+        List<Integer> result = new ArrayList<>(relabeledVertices.size());
+        for (int v : relabeledVertices) result.add(oldId[v]);
+        return result;
+    }
+
+    /**
+     * Translates an SCC result computed on the relabeled graph. Component indices,
+     * the condensation DAG and its topological order do not depend on vertex IDs
+     * and are kept; sccMap and component members are mapped back.
+     */
+    public TarjanSCC.Result toOriginal(TarjanSCC.Result result) {
+        List<List<Integer>> sccs = new ArrayList<>(result.sccs.size());
+        for (List<Integer> comp : result.sccs) sccs.add(toOriginalIds(comp));
+        return new TarjanSCC.Result(sccs, toOriginalIndex(result.sccMap), result.sccCount,
+                result.condensation, result.topoOrder, result.metrics);
+    }
+
+    /**
+     * Translates a schedule computed on the relabeled graph.
+     */
+    public CriticalPathMethod.Schedule toOriginal(CriticalPathMethod.Schedule schedule) {
+        int[] critical = toOriginalIds(schedule.criticalVertices);
+        Arrays.sort(critical);
+        EdgeList edges = new EdgeList(schedule.criticalEdges.size());
+        for (int i = 0; i < schedule.criticalEdges.size(); i++) {
+            edges.add(oldId[schedule.criticalEdges.getFrom(i)], oldId[schedule.criticalEdges.getTo(i)],
+                    schedule.criticalEdges.getWeight(i));
+        }
+        return new CriticalPathMethod.Schedule(schedule.length, toOriginalIndex(schedule.earliestStart),
+                toOriginalIndex(schedule.latestStart), toOriginalIndex(schedule.slack), critical, edges);
+    }
+
+    private static int[] breadthFirst(CsrGraph g, boolean cuthillMcKee) {
+        int n = g.getN();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] degree = null;
+        int[] starts;
+        CsrGraph reverse = null;
+        if (cuthillMcKee) {
+            degree = totalDegree(g);
+            starts = sortByKey(n, degree, false);
+            reverse = g.transpose();
+        } else {
+            starts = new int[n];
+            for (int i = 0; i < n; i++) starts[i] = i;
+        }
+
+        int head = 0;
+        int tail = 0;
+        long[] scratch = new long[16];
+        for (int s : starts) {
+            if (visited[s]) continue;
+            visited[s] = true;
+            order[tail++] = s;
+            while (head < tail) {
+                int u = order[head++];
+                if (!cuthillMcKee) {
+                    for (int i = g.begin(u); i < g.end(u); i++) {
+                        int v = g.target(i);
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            order[tail++] = v;
+                        }
+                    }
+                    continue;
+                }
+                // Collect unvisited neighbours in both directions, then enqueue by increasing degree.
+                int count = 0;
+                int needed = g.outDegree(u) + reverse.outDegree(u);
+                if (scratch.length < needed) scratch = new long[Math.max(needed, scratch.length * 2)];
+                for (CsrGraph side : new CsrGraph[]{g, reverse}) {
+                    for (int i = side.begin(u); i < side.end(u); i++) {
+                        int v = side.target(i);
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            scratch[count++] = ((long) degree[v] << 32) | v;
+                        }
+                    }
+                }
+                Arrays.sort(scratch, 0, count);
+                for (int k = 0; k < count; k++) order[tail++] = (int) scratch[k];
+            }
+        }
+        return order;
+    }
+
+    private static int[] totalDegree(CsrGraph g) {
+        int n = g.getN();
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            degree[u] += g.outDegree(u);
+            for (int i = g.begin(u); i < g.end(u); i++) degree[g.target(i)]++;
+        }
+        return degree;
+    }
+
+    /**
+     * Vertices sorted by key (stable on vertex ID), ascending or descending.
+     */
+    private static int[] sortByKey(int n, int[] key, boolean descending) {
+        long[] packed = new long[n];
+        for (int v = 0; v < n; v++) {
+            long k = descending ? Integer.MAX_VALUE - key[v] : key[v];
+            packed[v] = (k << 32) | v;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = (int) packed[i];
+        return order;
+    }
+}
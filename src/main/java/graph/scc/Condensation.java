@@ -0,0 +1,181 @@
+package graph.scc;
+
+import graph.graph.CsrGraph;
+import graph.graph.Edge;
+import graph.graph.EdgeCursor;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.metrics.PhaseEvent;
+
+import java.util.Arrays;
+
+/**
+ * Builds the condensation DAG of a graph from an SCC assignment:
+ * one node per component and one weight-1 edge for every pair of components
+ * joined by at least one original edge.
+ */
+public final class Condensation {
+
+    private Condensation() {
+    }
+
+    /**
+     * @param graph    original graph
+     * @param sccMap   component index of every vertex
+     * @param sccCount number of components
+     * @return condensation DAG with sccCount nodes
+     */
+    public static Graph build(Graph graph, int[] sccMap, int sccCount) {
+        PhaseEvent event = PhaseEvent.start("condensation", "graph", graph.getN(), graph.getNumEdges());
+        Graph condensation = new Graph(sccCount);
+        int[] lastSource = new int[sccCount];
+        Arrays.fill(lastSource, -1);
+
+        // Vertices are visited component by component so that a target component
+        // already linked from the current source component is skipped without hashing.
+        int[] start = new int[sccCount + 1];
+        int[] members = membersByComponent(sccMap, sccCount, start);
+        for (int c = 0; c < sccCount; c++) {
+            for (int k = start[c]; k < start[c + 1]; k++) {
+                int u = members[k];
+                for (Edge edge : graph.getNeighbors(u)) {
+                    int sccV = sccMap[edge.getTo()];
+                    if (sccV != c && lastSource[sccV] != c) {
+                        lastSource[sccV] = c;
+                        condensation.addEdge(c, sccV, 1);
+                    }
+                }
+            }
+        }
+        event.finish(condensation.getNumEdges());
+        return condensation;
+    }
+
+    /**
+     * Same as {@link #build(Graph, int[], int)} for a primitive graph.
+     */
+    public static Graph build(IntGraph graph, int[] sccMap, int sccCount) {
+        PhaseEvent event = PhaseEvent.start("condensation", "primitive", graph.getN(), graph.getNumEdges());
+        Graph condensation = new Graph(sccCount);
+        int[] lastSource = new int[sccCount];
+        Arrays.fill(lastSource, -1);
+
+        int[] start = new int[sccCount + 1];
+        int[] members = membersByComponent(sccMap, sccCount, start);
+        EdgeCursor edges = graph.cursor();
+        for (int c = 0; c < sccCount; c++) {
+            for (int k = start[c]; k < start[c + 1]; k++) {
+                edges.reset(members[k]);
+                while (edges.next()) {
+                    int sccV = sccMap[edges.target()];
+                    if (sccV != c && lastSource[sccV] != c) {
+                        lastSource[sccV] = c;
+                        condensation.addEdge(c, sccV, 1);
+                    }
+                }
+            }
+        }
+        event.finish(condensation.getNumEdges());
+        return condensation;
+    }
+
+    /**
+     * Same as {@link #build(IntGraph, int[], int)}, producing the DAG directly as a
+     * {@link CsrGraph} without the per-edge objects of an adjacency-set graph. The
+     * graph is read twice: once to size the rows, once to fill them.
+     */
+    public static CsrGraph buildCsr(IntGraph graph, int[] sccMap, int sccCount) {
+        PhaseEvent event = PhaseEvent.start("condensation", "csr", graph.getN(), graph.getNumEdges());
+        int[] lastSource = new int[sccCount];
+        int[] start = new int[sccCount + 1];
+        int[] members = membersByComponent(sccMap, sccCount, start);
+        EdgeCursor edges = graph.cursor();
+
+        int[] offsets = new int[sccCount + 1];
+        int[] targets = null;
+        for (int pass = 0; pass < 2; pass++) {
+            Arrays.fill(lastSource, -1);
+            int size = 0;
+            for (int c = 0; c < sccCount; c++) {
+                for (int k = start[c]; k < start[c + 1]; k++) {
+                    edges.reset(members[k]);
+                    while (edges.next()) {
+                        int sccV = sccMap[edges.target()];
+                        if (sccV != c && lastSource[sccV] != c) {
+                            lastSource[sccV] = c;
+                            if (targets != null) targets[size] = sccV;
+                            size++;
+                        }
+                    }
+                }
+                offsets[c + 1] = size;
+            }
+            if (targets == null) targets = new int[size];
+        }
+        int[] weights = new int[targets.length];
+        Arrays.fill(weights, 1);
+        event.finish(targets.length);
+        return new CsrGraph(sccCount, offsets, targets, weights);
+    }
+
+    /**
+     * Condensation DAG that keeps durations: the edge between two components weighs
+     * as much as the heaviest original edge between them, so a longest path (e.g.
+     * the critical path method) over it is as long as the longest path through the
+     * original edges. Time spent inside a component is not modeled; all its vertices
+     * share one node.
+     *
+     * @return condensation DAG with sccCount nodes and max-weight edges
+     */
+    public static CsrGraph buildWeighted(IntGraph graph, int[] sccMap, int sccCount) {
+        PhaseEvent event = PhaseEvent.start("condensation", "weighted", graph.getN(), graph.getNumEdges());
+        int[] lastSource = new int[sccCount];
+        Arrays.fill(lastSource, -1);
+        int[] slot = new int[sccCount];
+        int[] start = new int[sccCount + 1];
+        int[] members = membersByComponent(sccMap, sccCount, start);
+        EdgeCursor edges = graph.cursor();
+
+        int[] offsets = new int[sccCount + 1];
+        int[] targets = new int[graph.getNumEdges()];
+        int[] weights = new int[graph.getNumEdges()];
+        int size = 0;
+        for (int c = 0; c < sccCount; c++) {
+            for (int k = start[c]; k < start[c + 1]; k++) {
+                edges.reset(members[k]);
+                while (edges.next()) {
+                    int sccV = sccMap[edges.target()];
+                    if (sccV == c) continue;
+                    if (lastSource[sccV] != c) {
+                        lastSource[sccV] = c;
+                        slot[sccV] = size;
+                        targets[size] = sccV;
+                        weights[size++] = edges.weight();
+                    } else if (edges.weight() > weights[slot[sccV]]) {
+                        weights[slot[sccV]] = edges.weight();
+                    }
+                }
+            }
+            offsets[c + 1] = size;
+        }
+        event.finish(size);
+        return new CsrGraph(sccCount, offsets, Arrays.copyOf(targets, size), Arrays.copyOf(weights, size));
+    }
+
+    /**
+     * Groups vertices by component with a counting sort.
+     *
+     * @param start filled with the component boundaries (length sccCount + 1)
+     * @return vertices ordered by component; component c occupies [start[c], start[c + 1])
+     */
+    static int[] membersByComponent(int[] sccMap, int sccCount, int[] start) {
+        for (int c : sccMap) start[c + 1]++;
+        for (int c = 0; c < sccCount; c++) start[c + 1] += start[c];
+        int[] next = Arrays.copyOf(start, sccCount);
+        int[] members = new int[sccMap.length];
+        for (int v = 0; v < sccMap.length; v++) {
+            members[next[sccMap[v]]++] = v;
+        }
+        return members;
+    }
+}
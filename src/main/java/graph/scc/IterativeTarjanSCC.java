@@ -0,0 +1,125 @@
+package graph.scc;
+
+import graph.graph.EdgeCursor;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tarjan's SCC algorithm with an explicit call stack over an {@link IntGraph}
+ * (CSR or compressed adjacency).
+ *
+ * Produces the same components, in the same emission order, as {@link TarjanSCC}
+ * on the same edge order, but does not recurse, so it works on graphs whose DFS
+ * depth would overflow the thread stack. All per-vertex state is kept in int arrays;
+ * a vertex's position in its edge list is saved from the cursor while the search
+ * is below it and restored when it returns.
+ */
+public class IterativeTarjanSCC {
+
+    private final IntGraph graph;
+    private final Metrics metrics;
+
+    public IterativeTarjanSCC(IntGraph graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Finds all strongly connected components and builds condensation DAG.
+     *
+     * @return result object containing SCCs, map, count, condensation DAG, and metrics
+     */
+    public TarjanSCC.Result findSCCs() {
+        metrics.start("tarjan-scc", "iterative", graph.getN(), graph.getNumEdges());
+        TarjanSCC.Result result = runDfs();
+        Graph condensation = Condensation.build(graph, result.sccMap, result.sccCount);
+        metrics.stop();
+        return result.withCondensation(condensation);
+    }
+
+    /**
+     * Finds all strongly connected components without building the condensation DAG.
+     *
+     * @return result object whose condensation is null
+     */
+    public TarjanSCC.Result findComponents() {
+        metrics.start("tarjan-scc", "iterative", graph.getN(), graph.getNumEdges());
+        TarjanSCC.Result result = runDfs();
+        metrics.stop();
+        return result;
+    }
+
+    private TarjanSCC.Result runDfs() {
+        int n = graph.getN();
+        // Checked first: the cursor state is the largest array and the one that can exceed the array limit
+        EdgeCursor edges = graph.cursor();
+        int stateSize = edges.stateSize();
+        int[] edgeState = new int[EdgeCursor.stateLength(edges, n)];
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] sccMap = new int[n];
+        int[] sccStack = new int[n];
+        int[] callStack = new int[n];
+        List<List<Integer>> sccs = new ArrayList<>();
+        int time = 0;
+        int sccTop = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != 0) continue;
+
+            int callTop = 0;
+            callStack[callTop++] = root;
+            metrics.incrementCounter("DFS Visits");
+            disc[root] = low[root] = ++time;
+            edges.reset(root);
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (edges.next()) {
+                    int v = edges.target();
+                    metrics.incrementCounter("DFS Edges");
+                    if (disc[v] == 0) { // Not visited: descend
+                        metrics.incrementCounter("DFS Visits");
+                        edges.save(edgeState, u * stateSize);
+                        disc[v] = low[v] = ++time;
+                        edges.reset(v);
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                        callStack[callTop++] = v;
+                    } else if (onStack[v]) { // Back-edge
+                        low[u] = Math.min(low[u], disc[v]);
+                    }
+                    continue;
+                }
+
+                // All edges of u done: u returns to its parent
+                callTop--;
+                if (low[u] == disc[u]) {
+                    List<Integer> component = new ArrayList<>();
+                    while (true) {
+                        int node = sccStack[--sccTop];
+                        onStack[node] = false;
+                        sccMap[node] = sccs.size();
+                        component.add(node);
+                        if (node == u) break;
+                    }
+                    sccs.add(component);
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                    edges.restore(parent, edgeState, parent * stateSize);
+                }
+            }
+        }
+
+        return new TarjanSCC.Result(sccs, sccMap, sccs.size(), null, metrics);
+    }
+}
@@ -0,0 +1,234 @@
+package graph.scc;
+
+import graph.dagsp.DAGSP;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+import graph.util.IntIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tarjan's SCC algorithm restricted to the part of a graph reachable from a set
+ * of seed vertices.
+ *
+ * The DFS starts only at the seeds and discovers the region as it goes. Every
+ * discovered vertex gets a local ID (in discovery order) through an
+ * {@link IntIntHashMap}; all other state is kept in arrays indexed by local ID that
+ * grow with the region. Nothing is allocated per vertex of the whole graph, so a
+ * query costs time and memory proportional to the explored region.
+ *
+ * The result describes the region with local IDs: the subgraph in CSR layout, a
+ * {@link TarjanSCC.Result} whose sccMap and members are local IDs, and the
+ * condensation DAG, ready for {@link DAGSP}.
+ */
+public class LocalSCC {
+
+    private final IntGraph graph;
+    private final Metrics metrics;
+
+    public LocalSCC(IntGraph graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Finds the SCCs and condensation of the region reachable from the seeds.
+     *
+     * @param seeds start vertices (duplicates are ignored)
+     * @return the explored region
+     * @throws IllegalArgumentException if a seed is not a vertex of the graph
+     */
+    public Region explore(int... seeds) {
+        for (int s : seeds) {
+            if (s < 0 || s >= graph.getN())
+                throw new IllegalArgumentException("Seed " + s + " outside graph of " + graph.getN() + " vertices");
+        }
+        metrics.start("tarjan-scc", "local", 0, 0);
+
+        Search search = new Search(graph.cursor());
+        for (int seed : seeds) {
+            if (!search.index.containsKey(seed)) search.run(seed);
+        }
+
+        int count = search.count;
+        int[] vertices = Arrays.copyOf(search.vertices, count);
+        int[] sccMap = Arrays.copyOf(search.sccMap, count);
+        CsrGraph local = search.subgraph.toCsr(count);
+        Graph condensation = Condensation.build(local, sccMap, search.sccs.size());
+        metrics.setPhaseSize(count, local.getNumEdges());
+        metrics.stop();
+        return new Region(vertices, search.index, local,
+                new TarjanSCC.Result(search.sccs, sccMap, search.sccs.size(), condensation, metrics));
+    }
+
+    /**
+     * DFS state over local IDs. Arrays start small and double with the region.
+     */
+    private final class Search {
+        final IntIntHashMap index = new IntIntHashMap();   // global -> local
+        final EdgeCursor edges;
+        final int stateSize;
+        final EdgeList subgraph = new EdgeList();
+        final List<List<Integer>> sccs = new ArrayList<>();
+        int[] vertices = new int[16];                       // local -> global
+        int[] disc = new int[16];
+        int[] low = new int[16];
+        boolean[] onStack = new boolean[16];
+        int[] sccMap = new int[16];
+        int[] sccStack = new int[16];
+        int[] callStack = new int[16];
+        int[] edgeState;
+        int count;
+        int sccTop;
+
+        Search(EdgeCursor edges) {
+            this.edges = edges;
+            this.stateSize = edges.stateSize();
+            this.edgeState = new int[16 * stateSize];
+        }
+
+        /**
+         * Assigns the next local ID to a global vertex and pushes it on the SCC stack.
+         */
+        int discover(int vertex) {
+            if (count == vertices.length) {
+                int capacity = count * 2;
+                vertices = Arrays.copyOf(vertices, capacity);
+                disc = Arrays.copyOf(disc, capacity);
+                low = Arrays.copyOf(low, capacity);
+                onStack = Arrays.copyOf(onStack, capacity);
+                sccMap = Arrays.copyOf(sccMap, capacity);
+                sccStack = Arrays.copyOf(sccStack, capacity);
+                callStack = Arrays.copyOf(callStack, capacity);
+                edgeState = Arrays.copyOf(edgeState, EdgeCursor.stateLength(edges, capacity));
+            }
+            int v = count++;
+            index.put(vertex, v);
+            vertices[v] = vertex;
+            disc[v] = low[v] = v + 1;   // local IDs are assigned in discovery order
+            sccStack[sccTop++] = v;
+            onStack[v] = true;
+            metrics.incrementCounter("DFS Visits");
+            return v;
+        }
+
+        void run(int seed) {
+            int callTop = 0;
+            callStack[callTop++] = discover(seed);
+            edges.reset(seed);
+
+            while (callTop > 0) {
+                int u = callStack[callTop - 1];
+                if (edges.next()) {
+                    int target = edges.target();
+                    metrics.incrementCounter("DFS Edges");
+                    int v = index.get(target, -1);
+                    if (v < 0) { // Not visited: descend
+                        edges.save(edgeState, u * stateSize);
+                        v = discover(target);
+                        subgraph.add(u, v, edges.weight());
+                        callStack[callTop++] = v;
+                        edges.reset(target);
+                    } else {
+                        subgraph.add(u, v, edges.weight());
+                        if (onStack[v]) { // Back-edge
+                            low[u] = Math.min(low[u], disc[v]);
+                        }
+                    }
+                    continue;
+                }
+
+                // All edges of u done: u returns to its parent
+                callTop--;
+                if (low[u] == disc[u]) {
+                    List<Integer> component = new ArrayList<>();
+                    while (true) {
+                        int node = sccStack[--sccTop];
+                        onStack[node] = false;
+                        sccMap[node] = sccs.size();
+                        component.add(node);
+                        if (node == u) break;
+                    }
+                    sccs.add(component);
+                }
+                if (callTop > 0) {
+                    int parent = callStack[callTop - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                    edges.restore(vertices[parent], edgeState, parent * stateSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * The part of a graph reachable from the seeds, with local vertex IDs 0..size()-1.
+     */
+    public static class Region {
+        /** Global vertex of every local ID, in DFS discovery order (seeds first in their trees). */
+        public final int[] vertices;
+        /** Subgraph induced by the region, over local IDs. */
+        public final CsrGraph subgraph;
+        /** Components over local IDs, with the condensation DAG and its topological order. */
+        public final TarjanSCC.Result scc;
+        private final IntIntHashMap index;
+
+        public Region(int[] vertices, IntIntHashMap index, CsrGraph subgraph, TarjanSCC.Result scc) {
+            this.vertices = vertices;
+            this.index = index;
+            this.subgraph = subgraph;
+            this.scc = scc;
+        }
+
+        public int size() {
+            return vertices.length;
+        }
+
+        /**
+         * @return local ID of a global vertex, or -1 if it is not reachable from the seeds
+         */
+        public int localId(int vertex) {
+            return index.get(vertex, -1);
+        }
+
+        public boolean contains(int vertex) {
+            return index.containsKey(vertex);
+        }
+
+        /**
+         * @return component of a global vertex, or -1 if it is not reachable from the seeds
+         */
+        public int componentOf(int vertex) {
+            int local = localId(vertex);
+            return local < 0 ? -1 : scc.sccMap[local];
+        }
+
+        /**
+         * DAG shortest or longest paths over the condensation of the region, from the
+         * component of a seed.
+         *
+         * @return distance of every component (Integer.MAX_VALUE / Integer.MIN_VALUE = unreachable)
+         * @throws IllegalArgumentException if source is not in the region
+         */
+        public int[] componentDistances(int source, boolean longest, Metrics metrics) {
+            int c = componentOf(source);
+            if (c < 0) throw new IllegalArgumentException("Vertex " + source + " is not in the region");
+            DAGSP dagsp = new DAGSP(CsrGraph.of(scc.condensation), metrics);
+            return longest ? dagsp.longestPaths(c, scc.topoOrder) : dagsp.shortestPaths(c, scc.topoOrder);
+        }
+
+        /**
+         * @return the global vertices of a list of local IDs
+         */
+        public List<Integer> toGlobal(List<Integer> localIds) {
+            List<Integer> result = new ArrayList<>(localIds.size());
+            for (int v : localIds) result.add(vertices[v]);
+            return result;
+        }
+    }
+}
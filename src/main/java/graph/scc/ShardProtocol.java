@@ -0,0 +1,53 @@
+package graph.scc;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format between {@link ShardedSCC} and its {@link ShardWorker}s. Everything
+ * is a big-endian int:
+ * <pre>
+ * worker      -> coordinator: MAGIC, shard index
+ * coordinator -> worker:      lo, hi, row offsets of lo..hi-1 (hi - lo + 1, from 0), targets (global IDs)
+ * worker      -> coordinator: the {@link ShardSummary}
+ * </pre>
+ * Int arrays are moved in chunks through a byte buffer rather than one
+ * {@code writeInt} per value.
+ */
+final class ShardProtocol {
+
+    static final int MAGIC = 0x53434353;    // "SCCS"
+
+    private static final int CHUNK = 1 << 14;
+
+    private ShardProtocol() {
+    }
+
+    static void writeInts(DataOutputStream out, int[] values, int from, int to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * Math.min(CHUNK, Math.max(1, to - from)));
+        for (int i = from; i < to; ) {
+            int count = Math.min(CHUNK, to - i);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, i, count);
+            out.write(buffer.array(), 0, 4 * count);
+            i += count;
+        }
+    }
+
+    static int[] readInts(DataInputStream in, int length) throws IOException {
+        if (length < 0) throw new IOException("Negative array length " + length);
+        int[] values = new int[length];
+        byte[] bytes = new byte[4 * Math.min(CHUNK, Math.max(1, length))];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < length; ) {
+            int count = Math.min(CHUNK, length - i);
+            in.readFully(bytes, 0, 4 * count);
+            buffer.clear();
+            buffer.asIntBuffer().get(values, i, count);
+            i += count;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,133 @@
+package graph.scc;
+
+import graph.graph.CsrGraph;
+import graph.metrics.Metrics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * What a worker reports about its shard, the vertex range [lo, hi) of the input
+ * graph: the SCCs of the subgraph induced by the range ("local components"), the
+ * edges between them, and the boundary edges from each local component to vertices
+ * of other shards, deduplicated per component.
+ *
+ * Every global SCC is a union of local components, so the graph of local
+ * components of all shards with these edges has exactly the SCCs, the condensation
+ * and the topological orders of the input graph, with one node per local
+ * component instead of one per vertex.
+ */
+final class ShardSummary {
+
+    final int count;            // local components
+    final int[] localMap;       // local component of vertex lo + i
+    final int[] dagOffsets;     // per local component, into dagTargets
+    final int[] dagTargets;     // local components of the same shard
+    final int[] crossOffsets;   // per local component, into crossTargets
+    final int[] crossTargets;   // global vertex IDs outside the shard
+    final int counter;          // DFS visits and edges of the local Tarjan
+
+    private ShardSummary(int count, int[] localMap, int[] dagOffsets, int[] dagTargets,
+                         int[] crossOffsets, int[] crossTargets, int counter) {
+        this.count = count;
+        this.localMap = localMap;
+        this.dagOffsets = dagOffsets;
+        this.dagTargets = dagTargets;
+        this.crossOffsets = crossOffsets;
+        this.crossTargets = crossTargets;
+        this.counter = counter;
+    }
+
+    /**
+     * Summarizes a shard.
+     *
+     * @param lo      first vertex of the shard
+     * @param offsets row boundaries of vertices lo.. into targets (length hi - lo + 1)
+     * @param targets out-edge targets, global vertex IDs
+     */
+    static ShardSummary of(int lo, int[] offsets, int[] targets) {
+        int size = offsets.length - 1;
+        int inside = 0;
+        for (int t : targets) {
+            if (t - lo >= 0 && t - lo < size) inside++;
+        }
+
+        // Induced subgraph, local IDs
+        int[] localOffsets = new int[size + 1];
+        int[] localTargets = new int[inside];
+        int k = 0;
+        for (int u = 0; u < size; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int t = targets[i] - lo;
+                if (t >= 0 && t < size) localTargets[k++] = t;
+            }
+            localOffsets[u + 1] = k;
+        }
+        Metrics metrics = new Metrics();
+        TarjanSCC.Result local = new IterativeTarjanSCC(
+                new CsrGraph(size, localOffsets, localTargets, new int[inside]), metrics).findComponents();
+        int count = local.sccCount;
+        int[] localMap = local.sccMap;
+
+        int[] start = new int[count + 1];
+        int[] members = Condensation.membersByComponent(localMap, count, start);
+        int[] lastSource = new int[count];
+        Arrays.fill(lastSource, -1);
+        int[] dagOffsets = new int[count + 1];
+        int[] dagTargets = new int[inside];
+        int[] crossOffsets = new int[count + 1];
+        int[] crossTargets = new int[targets.length - inside];
+        int dag = 0;
+        int cross = 0;
+        for (int c = 0; c < count; c++) {
+            int crossStart = cross;
+            for (int m = start[c]; m < start[c + 1]; m++) {
+                int u = members[m];
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int t = targets[i] - lo;
+                    if (t < 0 || t >= size) {
+                        crossTargets[cross++] = targets[i];
+                    } else if (localMap[t] != c && lastSource[localMap[t]] != c) {
+                        lastSource[localMap[t]] = c;
+                        dagTargets[dag++] = localMap[t];
+                    }
+                }
+            }
+            // Boundary targets of the component, each once
+            Arrays.sort(crossTargets, crossStart, cross);
+            int unique = crossStart;
+            for (int i = crossStart; i < cross; i++) {
+                if (i == crossStart || crossTargets[i] != crossTargets[i - 1]) crossTargets[unique++] = crossTargets[i];
+            }
+            cross = unique;
+            dagOffsets[c + 1] = dag;
+            crossOffsets[c + 1] = cross;
+        }
+        return new ShardSummary(count, localMap, dagOffsets, Arrays.copyOf(dagTargets, dag),
+                crossOffsets, Arrays.copyOf(crossTargets, cross), metrics.getCounter());
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(counter);
+        out.writeInt(count);
+        out.writeInt(localMap.length);
+        ShardProtocol.writeInts(out, localMap, 0, localMap.length);
+        ShardProtocol.writeInts(out, dagOffsets, 0, dagOffsets.length);
+        ShardProtocol.writeInts(out, dagTargets, 0, dagTargets.length);
+        ShardProtocol.writeInts(out, crossOffsets, 0, crossOffsets.length);
+        ShardProtocol.writeInts(out, crossTargets, 0, crossTargets.length);
+    }
+
+    static ShardSummary read(DataInputStream in) throws IOException {
+        int counter = in.readInt();
+        int count = in.readInt();
+        int[] localMap = ShardProtocol.readInts(in, in.readInt());
+        int[] dagOffsets = ShardProtocol.readInts(in, count + 1);
+        int[] dagTargets = ShardProtocol.readInts(in, dagOffsets[count]);
+        int[] crossOffsets = ShardProtocol.readInts(in, count + 1);
+        int[] crossTargets = ShardProtocol.readInts(in, crossOffsets[count]);
+        return new ShardSummary(count, localMap, dagOffsets, dagTargets, crossOffsets, crossTargets, counter);
+    }
+}
@@ -0,0 +1,52 @@
+package graph.scc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Worker process of {@link ShardedSCC}: connects to the coordinator on the
+ * loopback interface, receives the out-edges of one vertex range, and answers
+ * with its {@link ShardSummary}.
+ *
+ * <pre>
+ * java -cp ... graph.scc.ShardWorker PORT SHARD
+ * </pre>
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: graph.scc.ShardWorker PORT SHARD");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int shard = Integer.parseInt(args[1]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            serve(socket, shard);
+        }
+    }
+
+    static void serve(Socket socket, int shard) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+        out.writeInt(ShardProtocol.MAGIC);
+        out.writeInt(shard);
+        out.flush();
+
+        int lo = in.readInt();
+        int hi = in.readInt();
+        int[] offsets = ShardProtocol.readInts(in, hi - lo + 1);
+        int[] targets = ShardProtocol.readInts(in, offsets[hi - lo]);
+
+        ShardSummary.of(lo, offsets, targets).write(out);
+        out.flush();
+    }
+}
@@ -0,0 +1,298 @@
+package graph.scc;
+
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
+import graph.graph.Graph;
+import graph.graph.IntGraph;
+import graph.metrics.Footprint;
+import graph.metrics.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tarjan's SCC algorithm split across worker JVMs on the local machine.
+ *
+ * The vertex set is cut into contiguous ranges of about equal vertices + edges,
+ * one per worker. Each {@link ShardWorker} is started as a separate process,
+ * receives the out-edges of its range over a loopback socket and finds the SCCs of
+ * the subgraph induced by the range; the workers run in parallel. The coordinator
+ * then runs {@link IterativeTarjanSCC} on the graph of the workers' local
+ * components (see {@link ShardSummary}), whose SCCs are unions of local components
+ * and are exactly the SCCs of the input graph.
+ *
+ * The result has the same form as {@link TarjanSCC.Result}: components are
+ * numbered in reverse topological order, so {@code topoOrder} is valid for the
+ * condensation DAG. Members of a component are listed in increasing vertex order.
+ *
+ * The merge step is small when ranges keep most edges inside (e.g. after a
+ * locality-preserving relabeling); with random IDs most vertices stay their own
+ * local component and the coordinator does most of the work.
+ *
+ * Every worker gets an explicit maximum heap: the one passed to the constructor,
+ * or twice the estimated footprint of its shard, so that the JVM default (a
+ * fraction of physical memory per process) does not oversubscribe the machine.
+ */
+public class ShardedSCC {
+
+    private static final int CHUNK = 1 << 14;
+    private static final long START_TIMEOUT_MS = 60_000;
+    private static final long MIN_WORKER_HEAP = 64L << 20;
+
+    private final IntGraph graph;
+    private final int workers;
+    private final long workerHeap;
+    private final Metrics metrics;
+
+    /**
+     * Sizes the heap of every worker from its shard.
+     *
+     * @param workers number of worker processes; fewer are started for graphs with fewer vertices
+     * @throws IllegalArgumentException if workers < 1
+     */
+    public ShardedSCC(IntGraph graph, int workers, Metrics metrics) {
+        this(graph, workers, -1, metrics);
+    }
+
+    /**
+     * @param workers    number of worker processes; fewer are started for graphs with fewer vertices
+     * @param workerHeap maximum heap of each worker in bytes, or -1 to size every worker from its shard
+     * @throws IllegalArgumentException if workers < 1 or workerHeap is neither positive nor -1
+     */
+    public ShardedSCC(IntGraph graph, int workers, long workerHeap, Metrics metrics) {
+        if (workers < 1) throw new IllegalArgumentException("At least one worker required, got " + workers);
+        if (workerHeap < 1 && workerHeap != -1)
+            throw new IllegalArgumentException("Worker heap must be positive, got " + workerHeap);
+        this.graph = graph;
+        this.workers = workers;
+        this.workerHeap = workerHeap;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Finds all strongly connected components and builds condensation DAG.
+     *
+     * @throws IOException if a worker cannot be started or fails
+     */
+    public TarjanSCC.Result findSCCs() throws IOException {
+        return run(true);
+    }
+
+    /**
+     * Finds all strongly connected components without building the condensation DAG.
+     *
+     * @return result object whose condensation is null
+     * @throws IOException if a worker cannot be started or fails
+     */
+    public TarjanSCC.Result findComponents() throws IOException {
+        return run(false);
+    }
+
+    private TarjanSCC.Result run(boolean condense) throws IOException {
+        metrics.start("tarjan-scc", "sharded", graph.getN(), graph.getNumEdges());
+        int n = graph.getN();
+        int[] bounds = partition(Math.min(workers, Math.max(1, n)));
+        int shards = bounds.length - 1;
+        ShardSummary[] summaries = n == 0 ? new ShardSummary[0] : summarize(bounds);
+
+        // Graph of local components: node base[s] + c is local component c of shard s
+        int[] base = new int[shards + 1];
+        long edges = 0;
+        for (int s = 0; s < summaries.length; s++) {
+            base[s + 1] = base[s] + summaries[s].count;
+            edges += summaries[s].dagTargets.length + summaries[s].crossTargets.length;
+            metrics.incrementCounter("Worker DFS", summaries[s].counter);
+        }
+        if (edges > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Too many boundary edges to merge: " + edges);
+        int[] nodeOf = new int[n];
+        for (int s = 0; s < summaries.length; s++) {
+            for (int v = bounds[s]; v < bounds[s + 1]; v++) {
+                nodeOf[v] = base[s] + summaries[s].localMap[v - bounds[s]];
+            }
+        }
+        int nodes = base[shards];
+        int[] offsets = new int[nodes + 1];
+        int[] targets = new int[(int) edges];
+        int k = 0;
+        for (int s = 0; s < summaries.length; s++) {
+            ShardSummary summary = summaries[s];
+            for (int c = 0; c < summary.count; c++) {
+                for (int i = summary.dagOffsets[c]; i < summary.dagOffsets[c + 1]; i++) {
+                    targets[k++] = base[s] + summary.dagTargets[i];
+                }
+                for (int i = summary.crossOffsets[c]; i < summary.crossOffsets[c + 1]; i++) {
+                    targets[k++] = nodeOf[summary.crossTargets[i]];
+                }
+                offsets[base[s] + c + 1] = k;
+            }
+        }
+        CsrGraph components = new CsrGraph(nodes, offsets, targets, new int[k]);
+
+        Metrics mergeMetrics = new Metrics();
+        TarjanSCC.Result merged = new IterativeTarjanSCC(components, mergeMetrics).findComponents();
+        metrics.incrementCounter("Merge DFS", mergeMetrics.getCounter());
+        Graph condensation = condense ? Condensation.build(components, merged.sccMap, merged.sccCount) : null;
+
+        int[] sccMap = nodeOf;
+        List<List<Integer>> sccs = new ArrayList<>(merged.sccCount);
+        for (int c = 0; c < merged.sccCount; c++) sccs.add(new ArrayList<>());
+        for (int v = 0; v < n; v++) {
+            sccMap[v] = merged.sccMap[nodeOf[v]];
+            sccs.get(sccMap[v]).add(v);
+        }
+        metrics.stop();
+        return new TarjanSCC.Result(sccs, sccMap, merged.sccCount, condensation, metrics);
+    }
+
+    /**
+     * Cuts 0..n into shards ranges of about (n + m) / shards vertices + edges.
+     *
+     * @return range boundaries, shard s is [bounds[s], bounds[s + 1])
+     */
+    private int[] partition(int shards) {
+        int n = graph.getN();
+        long total = n + (long) graph.getNumEdges();
+        int[] bounds = new int[shards + 1];
+        int s = 1;
+        long sum = 0;
+        for (int u = 0; u < n && s < shards; u++) {
+            sum += 1 + graph.outDegree(u);
+            while (s < shards && sum >= total * s / shards) bounds[s++] = u + 1;
+        }
+        while (s <= shards) bounds[s++] = n;
+        return bounds;
+    }
+
+    /**
+     * Starts one worker per shard, sends every worker its range and collects the summaries.
+     */
+    private ShardSummary[] summarize(int[] bounds) throws IOException {
+        int shards = bounds.length - 1;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        Process[] processes = new Process[shards];
+        ExecutorService pool = Executors.newFixedThreadPool(shards);
+        try (ServerSocket server = new ServerSocket(0, shards, InetAddress.getLoopbackAddress())) {
+            for (int s = 0; s < shards; s++) {
+                long heapMb = (heap(bounds[s], bounds[s + 1]) + (1 << 20) - 1) >> 20;
+                processes[s] = new ProcessBuilder(java, "-Xmx" + heapMb + "m", "-cp", classPath,
+                        ShardWorker.class.getName(), String.valueOf(server.getLocalPort()), String.valueOf(s))
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+            }
+
+            List<Future<ShardSummary>> futures = new ArrayList<>();
+            for (int s = 0; s < shards; s++) futures.add(null);
+            server.setSoTimeout(1000);
+            long deadline = System.currentTimeMillis() + START_TIMEOUT_MS;
+            for (int connected = 0; connected < shards; ) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    checkStarted(processes, futures, deadline);
+                    continue;
+                }
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                int shard = in.readInt() == ShardProtocol.MAGIC ? in.readInt() : -1;
+                if (shard < 0 || shard >= shards || futures.get(shard) != null) {
+                    socket.close();
+                    throw new IOException("Unexpected connection to the SCC coordinator from " + socket.getRemoteSocketAddress());
+                }
+                futures.set(shard, pool.submit(() -> exchange(socket, in, bounds[shard], bounds[shard + 1])));
+                connected++;
+            }
+
+            ShardSummary[] summaries = new ShardSummary[shards];
+            for (int s = 0; s < shards; s++) {
+                try {
+                    summaries[s] = futures.get(s).get();
+                } catch (ExecutionException e) {
+                    throw new IOException("SCC worker " + s + " failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return summaries;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for SCC workers", e);
+        } finally {
+            pool.shutdownNow();
+            for (Process p : processes) {
+                if (p != null) p.destroy();
+            }
+        }
+    }
+
+    /**
+     * @return maximum heap of the worker of [lo, hi): the configured one, or twice the
+     * estimated footprint of the received rows, the induced subgraph, the local
+     * Tarjan run and the summary, but at least {@link #MIN_WORKER_HEAP}
+     */
+    private long heap(int lo, int hi) {
+        if (workerHeap > 0) return workerHeap;
+        int size = hi - lo;
+        long edges = 0;
+        for (int u = lo; u < hi; u++) edges += graph.outDegree(u);
+        long rows = Footprint.array(size + 1, 4) + Footprint.array(edges, 4);
+        long footprint = 3 * rows + Footprint.array(edges, 4)
+                + Footprint.iterativeScc(size, 1) + Footprint.sccResult(size);
+        return Math.max(MIN_WORKER_HEAP, 2 * footprint);
+    }
+
+    private static void checkStarted(Process[] processes, List<Future<ShardSummary>> futures, long deadline)
+            throws IOException {
+        for (int s = 0; s < processes.length; s++) {
+            if (futures.get(s) == null && !processes[s].isAlive())
+                throw new IOException("SCC worker " + s + " exited with code " + processes[s].exitValue());
+        }
+        if (System.currentTimeMillis() > deadline)
+            throw new IOException("SCC workers did not connect within " + START_TIMEOUT_MS / 1000 + " s");
+    }
+
+    /**
+     * Sends the rows of [lo, hi) to a connected worker and reads its summary.
+     */
+    private ShardSummary exchange(Socket socket, DataInputStream in, int lo, int hi) throws IOException {
+        try (socket) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            out.writeInt(lo);
+            out.writeInt(hi);
+            int[] offsets = new int[hi - lo + 1];
+            for (int u = lo; u < hi; u++) offsets[u - lo + 1] = offsets[u - lo] + graph.outDegree(u);
+            ShardProtocol.writeInts(out, offsets, 0, offsets.length);
+
+            int[] chunk = new int[CHUNK];
+            int size = 0;
+            EdgeCursor edges = graph.cursor();
+            for (int u = lo; u < hi; u++) {
+                edges.reset(u);
+                while (edges.next()) {
+                    chunk[size++] = edges.target();
+                    if (size == CHUNK) {
+                        ShardProtocol.writeInts(out, chunk, 0, size);
+                        size = 0;
+                    }
+                }
+            }
+            ShardProtocol.writeInts(out, chunk, 0, size);
+            out.flush();
+            return ShardSummary.read(in);
+        }
+    }
+}
@@ -38,19 +38,35 @@ public class TarjanSCC {
      * @return result object containing SCCs, map, count, condensation DAG, and metrics
      */
     public Result findSCCs() {
-        metrics.start();
-        time = 0;
+        metrics.start("tarjan-scc", "recursive", graph.getN(), graph.getNumEdges());
+        runDfs();
+        Graph condensation = Condensation.build(graph, sccMap, sccs.size());
+        metrics.stop();
+
+        return new Result(sccs, sccMap, sccs.size(), condensation, metrics);
+    }
 
+    /**
+     * Finds all strongly connected components without building the condensation DAG.
+     * Use {@link Result#withCondensation(Graph)} to attach one later.
+     *
+     * @return result object whose condensation is null
+     */
+    public Result findComponents() {
+        metrics.start("tarjan-scc", "recursive", graph.getN(), graph.getNumEdges());
+        runDfs();
+        metrics.stop();
+
+        return new Result(sccs, sccMap, sccs.size(), null, metrics);
+    }
+
+    private void runDfs() {
+        time = 0;
         for (int i = 0; i < graph.getN(); i++) {
             if (disc[i] == 0) {
                 dfs(i);
             }
         }
-
-        Graph condensation = buildCondensationGraph();
-        metrics.stop();
-
-        return new Result(sccs, sccMap, sccs.size(), condensation, metrics);
     }
 
     private void dfs(int u) {
@@ -85,31 +101,6 @@ public class TarjanSCC {
         }
     }
 
-    /**
-     * Builds a condensation graph (DAG) where each node represents one SCC.
-     */
-    private Graph buildCondensationGraph() {
-        Graph condensation = new Graph(sccs.size());
-        Set<String> addedEdges = new HashSet<>();
-
-        for (int u = 0; u < graph.getN(); u++) {
-            int sccU = sccMap[u];
-            for (Edge edge : graph.getAdj().get(u)) {
-                int v = edge.getV();
-                int sccV = sccMap[v];
-                if (sccU != sccV) {
-                    String key = sccU + "->" + sccV;
-                    if (!addedEdges.contains(key)) {
-                        condensation.addEdge(sccU, sccV, 1);
-                        addedEdges.add(key);
-                    }
-                }
-            }
-        }
-
-        return condensation;
-    }
-
     /**
      * Holds the results of SCC analysis and condensation DAG.
      */
@@ -118,25 +109,58 @@ public class TarjanSCC {
         public final int[] sccMap;
         public final int sccCount;
         public final Graph condensation;
+        /**
+         * Topological order of the condensation DAG. Tarjan emits components in reverse
+         * topological order, so this is simply the component indices from last to first.
+         */
+        public final int[] topoOrder;
         public final Metrics metrics;
 
         public Result(List<List<Integer>> sccs, int[] sccMap, int sccCount,
                       Graph condensation, Metrics metrics) {
+            this(sccs, sccMap, sccCount, condensation, reverseIndices(sccCount), metrics);
+        }
+
+        /**
+         * @param topoOrder a topological order of the condensation DAG, e.g. one saved with an earlier result
+         */
+        public Result(List<List<Integer>> sccs, int[] sccMap, int sccCount,
+                      Graph condensation, int[] topoOrder, Metrics metrics) {
             this.sccs = sccs;
             this.sccMap = sccMap;
             this.sccCount = sccCount;
             this.condensation = condensation;
+            this.topoOrder = topoOrder;
             this.metrics = metrics;
         }
 
+        private static int[] reverseIndices(int count) {
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = count - 1 - i;
+            }
+            return order;
+        }
+
+        /**
+         * @return a copy of this result with the given condensation DAG
+         */
+        public Result withCondensation(Graph condensation) {
+            return new Result(sccs, sccMap, sccCount, condensation, topoOrder, metrics);
+        }
+
         public void printSummary() {
             System.out.println("Strongly Connected Components (Tarjan):");
             for (int i = 0; i < sccs.size(); i++) {
                 System.out.printf("SCC #%d: %s (size=%d)%n",
                         i, sccs.get(i).toString(), sccs.get(i).size());
             }
-            System.out.println("\nCondensation Graph has " +
-                    condensation.getN() + " nodes.");
+            if (condensation != null) {
+                System.out.println("\nCondensation Graph has " + condensation.getN() + " nodes and "
+                        + condensation.getNumEdges() + " edges.");
+            } else {
+                System.out.println("\n" + sccCount + " components (no condensation DAG built).");
+            }
         }
     }
 }
@@ -1,31 +1,49 @@
 package graph.topo;
 
 
-import graph.graph.Edge;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
 import graph.graph.Graph;
+import graph.graph.IntGraph;
 import graph.metrics.Metrics;
 
 import java.util.*;
 
 /**
- * Implements Kahn's algorithm for Topological Sorting of a Directed Acyclic Graph (DAG).
+ * Topological Sorting of a Directed Acyclic Graph (DAG), in two variants:
  *
- * - Works only on DAGs (Directed Acyclic Graphs).
- * - Detects cycles: if a cycle exists, the algorithm stops and returns an empty list.
- * - Measures performance using the Metrics class (time and operation count).
+ * - {@link #kahn()}: Kahn's algorithm (repeatedly removes vertices with in-degree 0).
+ * - {@link #dfs()}:  iterative depth-first search, emitting reverse postorder.
+ *
+ * Both work on a primitive adjacency ({@link IntGraph}: CSR or compressed) and return a {@link Result}. If the graph
+ * has a cycle, the result carries a concrete cycle as a witness instead of an order.
+ * Measures performance using the Metrics class (time and operation count).
  */
 public class TopoSort {
 
-    private final Graph graph;
+    private final IntGraph graph;
     private final Metrics metrics;
 
     /**
      * Constructs a TopologicalSort object with a given graph and metrics tracker.
+     * The graph is copied into CSR layout once, outside of the measured time.
      *
      * @param graph   Directed Acyclic Graph (DAG) to sort
      * @param metrics Performance metrics tracker
      */
     public TopoSort(Graph graph, Metrics metrics) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null");
+        }
+        this.graph = CsrGraph.of(graph);
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param graph   Directed Acyclic Graph (DAG) to sort, in CSR or compressed layout
+     * @param metrics Performance metrics tracker
+     */
+    public TopoSort(IntGraph graph, Metrics metrics) {
         if (graph == null) {
             throw new IllegalArgumentException("Graph cannot be null");
         }
@@ -39,53 +57,208 @@ public class TopoSort {
      * @return list of vertices in topological order, or an empty list if a cycle is detected
      */
     public List<Integer> sort() {
-        metrics.start();
+        Result result = kahn();
+        return result.isAcyclic() ? result.orderAsList() : new ArrayList<>();
+    }
+
+    /**
+     * Kahn's algorithm. On a cycle, the witness is taken from the vertices left
+     * with a positive in-degree: each of them has a predecessor among the left-over
+     * vertices, so following predecessors must close a cycle.
+     *
+     * Unlike {@link #dfs()}, this needs a second, partial scan after the main loop:
+     * the main loop only ever sees edges out of removed vertices, so it cannot know
+     * which left-over predecessor a vertex is waiting for. The scan reads only the
+     * out-edges of the left-over vertices, and is skipped entirely when the graph is
+     * acyclic. Recording a waiting predecessor during the main loop would need a
+     * reverse adjacency of every vertex, a second copy of the graph.
+     *
+     * @return topological order, or a cycle witness
+     */
+    public Result kahn() {
+        metrics.start("topo-sort", "kahn", graph.getN(), graph.getNumEdges());
 
         int n = graph.getN();
         int[] inDegree = new int[n];
+        EdgeCursor edges = graph.cursor();
 
         // Step 1: Compute in-degree (number of incoming edges) for each vertex.
         for (int u = 0; u < n; u++) {
-            for (Edge edge : graph.getNeighbors(u)) {
-                inDegree[edge.getTo()]++;
-            }
+            edges.reset(u);
+            while (edges.next()) inDegree[edges.target()]++;
         }
 
         // Step 2: Initialize queue with vertices that have in-degree = 0.
-        Queue<Integer> queue = new LinkedList<>();
+        // The queue is the order array itself: [head, tail) are pending vertices.
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.add(i);
+                order[tail++] = i;
                 metrics.incrementCounter("Pushes");
             }
         }
 
         // Step 3: Process vertices in queue.
-        List<Integer> topOrder = new ArrayList<>();
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
+        while (head < tail) {
+            int u = order[head++];
             metrics.incrementCounter("Pops");
-            topOrder.add(u);
 
             // For each outgoing edge (u -> v), reduce in-degree of v by 1.
-            for (Edge edge : graph.getNeighbors(u)) {
-                int v = edge.getTo();
-                inDegree[v]--;
-                if (inDegree[v] == 0) {
-                    queue.add(v);
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                if (--inDegree[v] == 0) {
+                    order[tail++] = v;
                     metrics.incrementCounter("Pushes");
                 }
             }
         }
 
+        // Step 4: If not all vertices are processed, the graph contains a cycle.
+        Result result = tail == n
+                ? new Result(order, null)
+                : new Result(new int[0], residualCycle(inDegree));
+
         metrics.stop();
+        return result;
+    }
 
-        // Step 4: If not all vertices are processed, the graph contains a cycle.
-        if (topOrder.size() != n) {
-            System.out.println("Cycle detected! Topological sort not possible.");
-            return new ArrayList<>();
+    /**
+     * Finds a cycle among the vertices Kahn's algorithm could not remove.
+     * Only edges between left-over vertices are scanned.
+     */
+    private int[] residualCycle(int[] inDegree) {
+        int n = graph.getN();
+        int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+        int start = -1;
+        EdgeCursor edges = graph.cursor();
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0) continue;
+            start = u;
+            edges.reset(u);
+            while (edges.next()) {
+                int v = edges.target();
+                if (inDegree[v] > 0) pred[v] = u;
+            }
+        }
+
+        // Walk predecessors until a vertex repeats; that vertex lies on a cycle.
+        int[] seen = new int[n];
+        int step = 0;
+        int v = start;
+        while (seen[v] == 0) {
+            seen[v] = ++step;
+            v = pred[v];
         }
 
-        return topOrder;
+        // Collect the cycle backwards, then reverse it into edge direction.
+        int[] cycle = new int[step - seen[v] + 1];
+        int k = cycle.length;
+        int u = v;
+        do {
+            cycle[--k] = u;
+            u = pred[u];
+        } while (u != v);
+        return cycle;
+    }
+
+    /**
+     * Iterative depth-first search. Vertices are written to the order array from the back
+     * as they finish, giving reverse postorder without a final reversal. The edge cursor
+     * position of a vertex is saved while the search is below it. A back edge to a
+     * vertex on the DFS path stops the search; the path segment is the cycle witness.
+     *
+     * @return topological order, or a cycle witness
+     */
+    public Result dfs() {
+        metrics.start("topo-sort", "dfs", graph.getN(), graph.getNumEdges());
+
+        int n = graph.getN();
+        EdgeCursor edges = graph.cursor();
+        int stateSize = edges.stateSize();
+        int[] edgeState = new int[EdgeCursor.stateLength(edges, n)];
+        int[] order = new int[n];
+        int next = n;                       // order[next..n) is filled
+        int[] pathPos = new int[n];         // 0 = unvisited, -1 = finished, k > 0 = on path at k - 1
+        int[] path = new int[n];
+        int[] cycle = null;
+
+        for (int root = 0; root < n && cycle == null; root++) {
+            if (pathPos[root] != 0) continue;
+
+            int depth = 0;
+            path[depth++] = root;
+            pathPos[root] = depth;
+            edges.reset(root);
+            metrics.incrementCounter("DFS Visits");
+
+            while (depth > 0) {
+                int u = path[depth - 1];
+                if (edges.next()) {
+                    int v = edges.target();
+                    metrics.incrementCounter("DFS Edges");
+                    if (pathPos[v] == 0) {
+                        edges.save(edgeState, u * stateSize);
+                        path[depth++] = v;
+                        pathPos[v] = depth;
+                        edges.reset(v);
+                        metrics.incrementCounter("DFS Visits");
+                    } else if (pathPos[v] > 0) { // Back edge u -> v closes a cycle
+                        cycle = Arrays.copyOfRange(path, pathPos[v] - 1, depth);
+                        break;
+                    }
+                    continue;
+                }
+                depth--;
+                pathPos[u] = -1;
+                order[--next] = u;
+                if (depth > 0) {
+                    int parent = path[depth - 1];
+                    edges.restore(parent, edgeState, parent * stateSize);
+                }
+            }
+        }
+
+        Result result = cycle == null ? new Result(order, null) : new Result(new int[0], cycle);
+        metrics.stop();
+        return result;
+    }
+
+    /**
+     * Outcome of a topological sort: an order of all vertices, or a cycle witness.
+     */
+    public static class Result {
+        /** Vertices in topological order; empty if the graph has a cycle. */
+        public final int[] order;
+        /** Vertices of one cycle in edge order (the last one links back to the first); null if acyclic. */
+        public final int[] cycle;
+
+        public Result(int[] order, int[] cycle) {
+            this.order = order;
+            this.cycle = cycle;
+        }
+
+        public boolean isAcyclic() {
+            return cycle == null;
+        }
+
+        public List<Integer> orderAsList() {
+            List<Integer> list = new ArrayList<>(order.length);
+            for (int v : order) list.add(v);
+            return list;
+        }
+
+        /**
+         * @return the cycle as "a -> b -> c -> a", or an empty string if acyclic
+         */
+        public String describeCycle() {
+            if (cycle == null) return "";
+            StringBuilder sb = new StringBuilder();
+            for (int v : cycle) sb.append(v).append(" -> ");
+            return sb.append(cycle[0]).toString();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of vertex IDs 0..capacity-1 ordered by an external key array,
+ * with decrease-key. The heap does not copy keys: after lowering keys[v] for a
+ * queued vertex, call {@link #decrease(int)}.
+ *
+ * All state is in two int arrays, so there is no boxing and no per-entry object.
+ */
+public class IndexedIntHeap {
+
+    private final int[] keys;
+    private final int[] heap;
+    private final int[] position;   // index of a vertex in heap, -1 if not queued
+    private int size;
+
+    /**
+     * @param keys key of every vertex; its length is the capacity
+     */
+    public IndexedIntHeap(int[] keys) {
+        this.keys = keys;
+        this.heap = new int[keys.length];
+        this.position = new int[keys.length];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int v) {
+        return position[v] >= 0;
+    }
+
+    /**
+     * Queues v with its current key, or restores heap order if it is already queued
+     * and its key was lowered.
+     */
+    public void pushOrDecrease(int v) {
+        if (position[v] >= 0) {
+            decrease(v);
+            return;
+        }
+        heap[size] = v;
+        position[v] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Restores heap order after keys[v] was lowered.
+     */
+    public void decrease(int v) {
+        siftUp(position[v]);
+    }
+
+    /**
+     * Removes and returns the vertex with the smallest key.
+     *
+     * @throws IllegalStateException if the heap is empty
+     */
+    public int pop() {
+        if (size == 0) throw new IllegalStateException("Heap is empty");
+        int top = heap[0];
+        position[top] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        int key = keys[v];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (keys[p] <= key) break;
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        int key = keys[v];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = heap[child];
+            if (child + 1 < size && keys[heap[child + 1]] < keys[c]) {
+                c = heap[++child];
+            }
+            if (key <= keys[c]) break;
+            heap[i] = c;
+            position[c] = i;
+            i = child;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
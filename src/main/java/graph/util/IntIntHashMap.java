@@ -0,0 +1,106 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative int keys to int values, with linear
+ * probing. Keys and values live in two int arrays; nothing is boxed. The table
+ * doubles when it is more than half full, so memory is proportional to the number
+ * of entries, not to the key range.
+ */
+public class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expected number of entries that fit without resizing
+     */
+    public IntIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value of key, or missing if absent
+     */
+    public int get(int key, int missing) {
+        int slot = slot(key);
+        while (true) {
+            int k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == EMPTY) return missing;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        int slot = slot(key);
+        while (true) {
+            int k = keys[slot];
+            if (k == key) return true;
+            if (k == EMPTY) return false;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Sets the value of key.
+     *
+     * @throws IllegalArgumentException if key is negative
+     */
+    public void put(int key, int value) {
+        if (key < 0) throw new IllegalArgumentException("Negative key " + key);
+        int slot = slot(key);
+        while (true) {
+            int k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == EMPTY) break;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) rehash(keys.length * 2);
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int slot = slot(k);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+        }
+    }
+}
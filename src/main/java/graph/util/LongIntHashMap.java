@@ -0,0 +1,124 @@
+package graph.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative long keys to int values, with linear
+ * probing, like {@link IntIntHashMap}. Removal shifts the rest of the probe run
+ * back instead of leaving tombstones, so lookups stay short under many updates.
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expected number of entries that fit without resizing
+     */
+    public LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value of key, or missing if absent
+     */
+    public int get(long key, int missing) {
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == EMPTY) return missing;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Sets the value of key.
+     *
+     * @throws IllegalArgumentException if key is negative
+     */
+    public void put(long key, int value) {
+        if (key < 0) throw new IllegalArgumentException("Negative key " + key);
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                values[slot] = value;
+                return;
+            }
+            if (k == EMPTY) break;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) rehash(keys.length * 2);
+    }
+
+    /**
+     * Removes key.
+     *
+     * @return its value, or missing if absent
+     */
+    public int remove(long key, int missing) {
+        int slot = slot(key);
+        while (true) {
+            long k = keys[slot];
+            if (k == key) break;
+            if (k == EMPTY) return missing;
+            slot = (slot + 1) & mask;
+        }
+        int value = values[slot];
+        // Move every later entry of the run whose home slot is not after the gap into the gap
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return value;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) continue;
+            int slot = slot(k);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package graph;
+
+import graph.dagsp.DAGSP;
+import graph.data.DatasetGenerator;
+import graph.data.EdgeListFormat;
+import graph.data.EdgeListWriter;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeCursor;
+import graph.graph.EdgeList;
+import graph.graph.IntGraph;
+import graph.metrics.Metrics;
+import graph.relabel.Relabeling;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopoSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedGraphTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testDecodesSameEdges() {
+        EdgeList edges = DatasetGenerator.generateSparse(2000, 4, 0.2, 1);
+        edges.add(5, 5, 3);      // self-loop
+        edges.add(7, 1, 2);      // parallel edges, target below the source
+        edges.add(7, 1, 2);
+        CsrGraph csr = edges.toCsr();
+        CompressedGraph compressed = CompressedGraph.of(csr);
+
+        assertEquals(csr.getN(), compressed.getN());
+        assertEquals(csr.getNumEdges(), compressed.getNumEdges());
+        assertEquals(4, compressed.getBitsPerWeight(), "Weights 1..9 fit in 4 bits");
+        for (int u = 0; u < csr.getN(); u++) {
+            assertEquals(csr.outDegree(u), compressed.outDegree(u));
+            assertEquals(sortedEdges(csr.cursor(), u), sortedEdges(compressed.cursor(), u), "Edges of " + u);
+        }
+    }
+
+    @Test
+    public void testWeightWidths() {
+        EdgeList equal = new EdgeList(2);
+        equal.add(0, 1, 7);
+        equal.add(1, 2, 7);
+        assertEquals(0, CompressedGraph.of(equal.toCsr()).getBitsPerWeight());
+
+        EdgeList wide = new EdgeList(3);
+        wide.add(0, 1, -5);
+        wide.add(1, 2, Integer.MAX_VALUE);
+        wide.add(2, 0, Integer.MIN_VALUE);
+        CompressedGraph g = CompressedGraph.of(wide.toCsr());
+        assertEquals(32, g.getBitsPerWeight());
+        EdgeCursor c = g.cursor();
+        c.reset(2);
+        assertTrue(c.next());
+        assertEquals(0, c.target());
+        assertEquals(Integer.MIN_VALUE, c.weight());
+    }
+
+    @Test
+    public void testCursorStateBeyondArrayLimit() {
+        // 800M vertices x 3 ints of cursor state overflow int; reported before anything is allocated
+        CompressedGraph small = CompressedGraph.of(new EdgeList().toCsr(1));
+        IntGraph huge = new IntGraph() {
+            public int getN() {
+                return 800_000_000;
+            }
+
+            public int getNumEdges() {
+                return 0;
+            }
+
+            public int outDegree(int u) {
+                return 0;
+            }
+
+            public EdgeCursor cursor() {
+                return small.cursor();
+            }
+        };
+        assertEquals(3, small.cursor().stateSize());
+        assertThrows(IllegalArgumentException.class, () -> new IterativeTarjanSCC(huge, new Metrics()).findComponents());
+        assertThrows(IllegalArgumentException.class, () -> new TopoSort(huge, new Metrics()).dfs());
+    }
+
+    @Test
+    public void testCursorRestore() {
+        EdgeList edges = new EdgeList(4);
+        edges.add(3, 0, 1);
+        edges.add(3, 2, 2);
+        edges.add(3, 900, 3);
+        edges.add(3, 1000, 4);
+        CompressedGraph g = CompressedGraph.of(edges.toCsr());
+        EdgeCursor c = g.cursor();
+        int[] state = new int[c.stateSize()];
+
+        c.reset(3);
+        c.save(state, 0);           // before the first edge
+        assertTrue(c.next());
+        c.reset(900);
+        assertFalse(c.next());
+        c.restore(3, state, 0);
+        assertTrue(c.next());
+        assertEquals(0, c.target());
+        assertTrue(c.next());
+        c.save(state, 0);           // after the second edge
+        c.reset(0);
+        c.restore(3, state, 0);
+        assertTrue(c.next());
+        assertEquals(900, c.target());
+        assertEquals(3, c.weight());
+        assertTrue(c.next());
+        assertEquals(1000, c.target());
+        assertFalse(c.next());
+    }
+
+    @Test
+    public void testAlgorithmsOnCompressedGraph() {
+        CsrGraph cyclic = DatasetGenerator.generateSparse(3000, 3, 0.2, 2).toCsr();
+        TarjanSCC.Result onCsr = new IterativeTarjanSCC(cyclic, new Metrics()).findSCCs();
+        TarjanSCC.Result onCompressed = new IterativeTarjanSCC(CompressedGraph.of(cyclic), new Metrics()).findSCCs();
+        assertEquals(onCsr.sccCount, onCompressed.sccCount);
+        assertEquals(onCsr.condensation.getNumEdges(), onCompressed.condensation.getNumEdges());
+        for (int u = 0; u < cyclic.getN(); u++) {
+            for (int i = cyclic.begin(u); i < cyclic.end(u); i++) {
+                int v = cyclic.target(i);
+                assertEquals(onCsr.sccMap[u] == onCsr.sccMap[v], onCompressed.sccMap[u] == onCompressed.sccMap[v]);
+            }
+        }
+
+        CsrGraph dag = DatasetGenerator.generateSparse(3000, 3, 0.0, 3).toCsr();
+        CompressedGraph compressedDag = CompressedGraph.of(dag);
+        TopoSort.Result dfs = new TopoSort(compressedDag, new Metrics()).dfs();
+        TopoSort.Result kahn = new TopoSort(compressedDag, new Metrics()).kahn();
+        assertTrue(dfs.isAcyclic());
+        assertTrue(kahn.isAcyclic());
+
+        int source = dfs.order[0];
+        assertArrayEquals(new DAGSP(dag, new Metrics()).shortestPaths(source, dfs.order),
+                new DAGSP(compressedDag, new Metrics()).shortestPaths(source, kahn.order));
+        assertArrayEquals(new DAGSP(dag, new Metrics()).longestPaths(source, dfs.order),
+                new DAGSP(compressedDag, new Metrics()).longestPaths(source, kahn.order));
+    }
+
+    @Test
+    public void testCycleWitnessOnCompressedGraph() {
+        EdgeList edges = new EdgeList(4);
+        edges.add(0, 1, 1);
+        edges.add(1, 2, 1);
+        edges.add(2, 3, 1);
+        edges.add(3, 1, 1);
+        TopoSort.Result dfs = new TopoSort(CompressedGraph.of(edges.toCsr()), new Metrics()).dfs();
+        assertFalse(dfs.isAcyclic());
+        assertEquals("1 -> 2 -> 3 -> 1", dfs.describeCycle());
+    }
+
+    @Test
+    public void testSmallerThanCsrAfterRelabeling() {
+        CsrGraph g = DatasetGenerator.generateSparse(20000, 4, 0.1, 4).toCsr();
+        CsrGraph local = Relabeling.bfs(g).apply(g);
+        CompressedGraph compressed = CompressedGraph.of(local);
+
+        long csrBytes = 4L * (local.getN() + 1) + 8L * local.getNumEdges();
+        assertTrue(compressed.getPayloadBytes() * 3 < csrBytes,
+                "Compressed " + compressed.getPayloadBytes() + " bytes vs CSR " + csrBytes);
+    }
+
+    @Test
+    public void testPipelineOutputUnchangedByRepresentation() throws IOException {
+        EdgeList edges = DatasetGenerator.generateSparse(500, 3, 0.0, 5);
+        Path file = dir.resolve("dag.txt");
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.TEXT)) {
+            w.writeAll(edges);
+        }
+        int source = edges.getFrom(0);
+        String csr = runToJson(file, "csr", source);
+        String compressed = runToJson(file, "compressed", source);
+        assertEquals(csr.substring(csr.indexOf("\"longest\"")), compressed.substring(compressed.indexOf("\"longest\"")));
+    }
+
+    private String runToJson(Path input, String representation, int source) throws IOException {
+        Path out = dir.resolve("out-" + representation + ".json");
+        PipelineRuns.runToJson(out, input.toString(), "--stages=lp", "--sources=" + source,
+                "--graph=" + representation);
+        return Files.readString(out);
+    }
+
+    private static List<Long> sortedEdges(EdgeCursor cursor, int u) {
+        List<Long> list = new ArrayList<>();
+        cursor.reset(u);
+        while (cursor.next()) list.add(((long) cursor.target() << 32) | (cursor.weight() & 0xFFFFFFFFL));
+        Collections.sort(list);
+        return list;
+    }
+}
@@ -1,13 +1,18 @@
 package graph;
 
+import graph.dagsp.CriticalPathMethod;
 import graph.dagsp.DAGSP;
+import graph.graph.CsrGraph;
 import graph.graph.Graph;
 import graph.metrics.Metrics;
+import graph.scc.Condensation;
+import graph.scc.TarjanSCC;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class DAGSPTest {
@@ -92,4 +97,114 @@ public class DAGSPTest {
         assertEquals(0, distLongest.length, "Longest paths array should be empty");
     }
 
+    @Test
+    public void testTarjanOrderDrivesDAGSP() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(0, 4, 1);
+        g.addEdge(4, 3, 1);
+
+        TarjanSCC.Result scc = new TarjanSCC(g, new Metrics()).findSCCs();
+        DAGSP dagsp = new DAGSP(scc.condensation, new Metrics());
+        int source = scc.sccMap[0];
+        int[] longest = dagsp.longestPaths(source, scc.topoOrder);
+        int[] shortest = dagsp.shortestPaths(source, scc.topoOrder);
+
+        assertEquals(2, longest[scc.sccMap[3]], "{0,1} -> {2} -> {3}");
+        assertEquals(2, shortest[scc.sccMap[3]]);
+        assertEquals(1, shortest[scc.sccMap[4]]);
+    }
+
+    @Test
+    public void testReconstructUnreachableLongest() {
+        Graph g = new Graph(3);
+        g.addEdge(1, 2, 5);
+        DAGSP dagsp = new DAGSP(g, new Metrics());
+        assertEquals(List.of(), dagsp.reconstructPath(0, 2, new int[]{0, 1, 2}, true));
+    }
+
+    @Test
+    public void testCriticalPathSchedule() {
+        // Two starts (0, 5); 0 -> 1 -> 3 -> 4 is the longest chain
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 3);
+        g.addEdge(0, 2, 2);
+        g.addEdge(1, 3, 4);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 2);
+        g.addEdge(5, 4, 1);
+
+        CriticalPathMethod.Schedule s = new CriticalPathMethod(g, new Metrics()).schedule(new int[]{0, 5, 1, 2, 3, 4});
+
+        assertEquals(9, s.length);
+        assertArrayEquals(new int[]{0, 3, 2, 7, 9, 0}, s.earliestStart);
+        assertArrayEquals(new int[]{0, 3, 6, 7, 9, 8}, s.latestStart);
+        assertArrayEquals(new int[]{0, 0, 4, 0, 0, 8}, s.slack);
+        assertArrayEquals(new int[]{0, 1, 3, 4}, s.criticalVertices);
+        assertEquals(3, s.criticalEdges.size());
+        assertEquals(0, s.criticalEdges.getFrom(0));
+        assertEquals(1, s.criticalEdges.getTo(0));
+    }
+
+    @Test
+    public void testScheduleMappedThroughSccMap() {
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(0, 4, 1);
+        g.addEdge(4, 3, 1);
+        g.addEdge(0, 3, 1);
+
+        TarjanSCC.Result scc = new TarjanSCC(g, new Metrics()).findSCCs();
+        CriticalPathMethod.Schedule s = new CriticalPathMethod(scc.condensation, new Metrics())
+                .schedule(scc.topoOrder)
+                .toOriginal(scc.sccMap, CsrGraph.of(g));
+
+        assertEquals(2, s.length);
+        assertArrayEquals(new int[]{0, 0, 1, 2, 1}, s.earliestStart);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, s.slack);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, s.criticalVertices);
+        // 1 -> 2, 2 -> 3, 0 -> 4, 4 -> 3; 0 -> 3 is not tight and 0 <-> 1 is inside a component
+        assertEquals(4, s.criticalEdges.size());
+    }
+
+    @Test
+    public void testScheduleWithDurationsAcrossScc() {
+        // Components A = {0, 1}, B = {2}, C = {3}
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 5);
+        g.addEdge(1, 0, 7);
+        g.addEdge(1, 2, 4);
+        g.addEdge(0, 2, 1);
+        g.addEdge(2, 3, 3);
+        g.addEdge(0, 3, 2);
+        CsrGraph csr = CsrGraph.of(g);
+
+        TarjanSCC.Result scc = new TarjanSCC(g, new Metrics()).findComponents();
+        CsrGraph dag = Condensation.buildWeighted(csr, scc.sccMap, scc.sccCount);
+        CriticalPathMethod.Schedule s = new CriticalPathMethod(dag, new Metrics())
+                .schedule(scc.topoOrder)
+                .toOriginal(scc.sccMap, csr);
+
+        // A -> B weighs max(4, 1) = 4, B -> C 3, A -> C 2
+        assertEquals(7, s.length);
+        assertArrayEquals(new int[]{0, 0, 4, 7}, s.earliestStart);
+        assertArrayEquals(new int[]{0, 0, 4, 7}, s.latestStart);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, s.criticalVertices);
+        // 1 -> 2 and 2 -> 3 are tight; 0 -> 2 and 0 -> 3 are not
+        assertEquals(2, s.criticalEdges.size());
+        for (int i = 0; i < s.criticalEdges.size(); i++) {
+            int u = s.criticalEdges.getFrom(i);
+            int v = s.criticalEdges.getTo(i);
+            assertEquals(s.earliestStart[v], s.earliestStart[u] + s.criticalEdges.getWeight(i), u + " -> " + v);
+        }
+        assertEquals(1, s.criticalEdges.getFrom(0));
+        assertEquals(2, s.criticalEdges.getTo(0));
+        assertEquals(4, s.criticalEdges.getWeight(0));
+    }
 }
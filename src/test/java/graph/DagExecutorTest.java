@@ -0,0 +1,124 @@
+package graph;
+
+import graph.data.DatasetGenerator;
+import graph.exec.DagExecutor;
+import graph.graph.CsrGraph;
+import graph.graph.Graph;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DagExecutorTest {
+
+    @Test
+    public void testRunsEveryComponentAfterItsPredecessors() throws Exception {
+        CsrGraph g = DatasetGenerator.generateSparse(3000, 3, 0.1, 1).toCsr();
+        TarjanSCC.Result scc = new IterativeTarjanSCC(g, new Metrics()).findSCCs();
+        CsrGraph dag = CsrGraph.of(scc.condensation);
+
+        AtomicIntegerArray runs = new AtomicIntegerArray(dag.getN());
+        AtomicIntegerArray finished = new AtomicIntegerArray(dag.getN());
+        AtomicInteger violations = new AtomicInteger();
+        Graph reverse = dag.transpose().toGraph();
+
+        DagExecutor.Report report = DagExecutor.forCondensation(scc, 4).execute(c -> {
+            runs.incrementAndGet(c);
+            for (var e : reverse.getNeighbors(c)) {
+                if (finished.get(e.getTo()) == 0) violations.incrementAndGet();
+            }
+            finished.set(c, 1);
+        });
+
+        for (int c = 0; c < dag.getN(); c++) assertEquals(1, runs.get(c), "Component " + c + " runs once");
+        assertEquals(0, violations.get(), "No task starts before its predecessors finished");
+        for (int u = 0; u < dag.getN(); u++) {
+            for (int i = dag.begin(u); i < dag.end(u); i++) {
+                assertTrue(report.finishedAt[u] <= report.startedAt[dag.target(i)]);
+            }
+        }
+        assertTrue(report.utilization() >= 0 && report.utilization() <= 1);
+    }
+
+    @Test
+    public void testLongerChainHasPriority() throws Exception {
+        // Sources 0 (chain 0 -> 1 -> 2 -> 3) and 4 (single task)
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        DagExecutor executor = new DagExecutor(CsrGraph.of(g), new int[]{0, 4, 1, 2, 3}, 1);
+        assertArrayEquals(new int[]{3, 2, 1, 0, 0}, executor.getPriority());
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        executor.execute(order::add);
+        assertEquals(List.of(0, 1, 2, 3, 4), order);
+    }
+
+    @Test
+    public void testDurationsOutweighHops() throws Exception {
+        // Same DAG, but the single task 4 costs more than the whole chain
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        int[] durations = {1, 1, 1, 1, 10};
+        DagExecutor executor = new DagExecutor(CsrGraph.of(g), new int[]{0, 4, 1, 2, 3}, durations, 1);
+        assertArrayEquals(new int[]{4, 3, 2, 1, 10}, executor.getPriority());
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        executor.execute(order::add);
+        assertEquals(List.of(4, 0, 1, 2, 3), order);
+        assertThrows(IllegalArgumentException.class,
+                () -> new DagExecutor(CsrGraph.of(g), new int[]{0, 4, 1, 2, 3}, new int[4], 1));
+    }
+
+    @Test
+    public void testFailureStopsExecution() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        DagExecutor executor = new DagExecutor(CsrGraph.of(g), new int[]{0, 1, 2}, 2);
+        AtomicInteger runs = new AtomicInteger();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> executor.execute(v -> {
+            runs.incrementAndGet();
+            if (v == 1) throw new IllegalStateException("task 1 failed");
+        }));
+        assertEquals("task 1 failed", e.getCause().getMessage());
+        assertEquals(2, runs.get(), "Task 2 never starts");
+    }
+
+    @Test
+    public void testEmptyDag() throws Exception {
+        DagExecutor.Report report = new DagExecutor(CsrGraph.of(new Graph(0)), new int[0], 2).execute(v -> fail());
+        assertEquals(0, report.busyNanos);
+    }
+
+    @Test
+    public void testCyclicInputRejected() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+        CsrGraph cyclic = CsrGraph.of(g);
+        assertThrows(IllegalArgumentException.class, () -> new DagExecutor(cyclic, new int[]{0, 1, 2}, 2));
+        assertThrows(IllegalArgumentException.class, () -> new DagExecutor(cyclic, new int[]{0, 1}, 2));
+
+        Graph dag = new Graph(3);
+        dag.addEdge(0, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new DagExecutor(CsrGraph.of(dag), new int[]{1, 0, 2}, 2), "Edge against the order");
+        assertThrows(IllegalArgumentException.class,
+                () -> new DagExecutor(CsrGraph.of(dag), new int[]{0, 0, 2}, 2), "Repeated node");
+    }
+}
@@ -0,0 +1,136 @@
+package graph;
+
+import graph.data.EdgeListFormat;
+import graph.data.EdgeListReader;
+import graph.data.EdgeListWriter;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EdgeListIOTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testNdjsonRoundTrip() throws IOException {
+        Path file = dir.resolve("g.ndjson");
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.NDJSON)) {
+            w.writeEdge(0, 1, 5);
+            w.writeEdge(1, 2, -3);
+            w.writeEdge(2, 0, 7);
+        }
+        EdgeList list = EdgeListReader.read(file);
+
+        assertEquals(3, list.size());
+        assertEquals(1, list.getFrom(1));
+        assertEquals(2, list.getTo(1));
+        assertEquals(-3, list.getWeight(1));
+        assertEquals(3, list.inferVertexCount());
+    }
+
+    @Test
+    public void testTextFormatVariants() throws IOException {
+        Path file = dir.resolve("g.txt");
+        Files.writeString(file, "u,v,w\n# comment\n0 1 4\n\n1,2\n  2\t3 9\r\n3 0 1");
+        EdgeList list = EdgeListReader.read(file);
+
+        assertEquals(4, list.size());
+        assertEquals(1, list.getWeight(1), "Missing weight defaults to 1");
+        assertEquals(9, list.getWeight(2));
+        assertEquals(0, list.getTo(3), "Last line without newline is parsed");
+    }
+
+    @Test
+    public void testNdjsonKeyOrderAndSpaces() throws IOException {
+        Path file = dir.resolve("g.jsonl");
+        Files.writeString(file, "{ \"w\": 2, \"v\": 1, \"u\": 0 }\n{\"u\":1,\"v\":0}\n");
+        EdgeList list = EdgeListReader.read(file);
+
+        assertEquals(2, list.size());
+        assertEquals(0, list.getFrom(0));
+        assertEquals(2, list.getWeight(0));
+        assertEquals(1, list.getWeight(1));
+    }
+
+    @Test
+    public void testNdjsonNonIntegerWeightsRejected() throws IOException {
+        Path fraction = dir.resolve("fraction.ndjson");
+        Files.writeString(fraction, "{\"u\":0,\"v\":1,\"w\":1.5}\n");
+        assertThrows(IOException.class, () -> EdgeListReader.read(fraction));
+        Path exponent = dir.resolve("exponent.ndjson");
+        Files.writeString(exponent, "{\"u\":0,\"v\":1,\"w\":2e3}\n");
+        assertThrows(IOException.class, () -> EdgeListReader.read(exponent));
+    }
+
+    @Test
+    public void testNdjsonExtraFieldsSkipped() throws IOException {
+        Path file = dir.resolve("extra.ndjson");
+        Files.writeString(file, "{\"u\":0,\"v\":1,\"label\":\"w\"}\n"
+                + "{\"id\":\"a \\\"quoted\\\", \\\"w\\\":9\",\"u\":1,\"tags\":[\"x\",{\"w\":3}],\"v\":2,\"w\":4}\n"
+                + "{\"u\":2,\"v\":0,\"ok\":true,\"x\":null,\"cost\":0.5}\n");
+        EdgeList list = EdgeListReader.read(file);
+
+        assertEquals(3, list.size());
+        assertEquals(1, list.getWeight(0), "A string value \"w\" is not the weight key");
+        assertEquals(1, list.getFrom(1));
+        assertEquals(4, list.getWeight(1), "Keys inside strings and nested values are ignored");
+        assertEquals(1, list.getWeight(2));
+    }
+
+    @Test
+    public void testMalformedLine() throws IOException {
+        Path file = dir.resolve("bad.txt");
+        Files.writeString(file, "0 1 2\n0 x 2\n");
+        assertThrows(IOException.class, () -> EdgeListReader.read(file));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws IOException {
+        Path file = dir.resolve("big.txt");
+        Random rnd = new Random(7);
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.TEXT)) {
+            for (int i = 0; i < 400_000; i++) {
+                w.writeEdge(rnd.nextInt(50_000), rnd.nextInt(50_000), rnd.nextInt(9) + 1);
+            }
+        }
+        EdgeList seq = EdgeListReader.read(file);
+        EdgeList par = EdgeListReader.readParallel(file, 4);
+
+        assertEquals(400_000, seq.size());
+        assertEquals(seq.size(), par.size());
+        for (int i = 0; i < seq.size(); i++) {
+            assertEquals(seq.getFrom(i), par.getFrom(i));
+            assertEquals(seq.getTo(i), par.getTo(i));
+            assertEquals(seq.getWeight(i), par.getWeight(i));
+        }
+    }
+
+    @Test
+    public void testBuildersAgree() {
+        EdgeList list = new EdgeList();
+        list.add(2, 0, 3);
+        list.add(0, 1, 1);
+        list.add(0, 2, 2);
+
+        Graph g = list.toGraph();
+        CsrGraph csr = list.toCsr();
+
+        assertEquals(3, g.getN());
+        assertEquals(3, g.getNumEdges());
+        assertEquals(2, csr.outDegree(0));
+        assertEquals(0, csr.target(csr.begin(2)));
+        assertEquals(3, csr.weight(csr.begin(2)));
+        assertEquals(g.getNumEdges(), CsrGraph.of(g).getNumEdges());
+    }
+}
@@ -0,0 +1,155 @@
+package graph;
+
+import graph.dagsp.DAGSP;
+import graph.dagsp.IncrementalDAGSP;
+import graph.data.DatasetGenerator;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.metrics.Metrics;
+import graph.topo.TopoSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalDAGSPTest {
+
+    @Test
+    public void testWeightChangeTouchesOnlyDownstream() {
+        // 0 -> 1 -> 2 -> 3 and a side branch 0 -> 4 -> 5
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(0, 4, 1);
+        g.addEdge(4, 5, 1);
+        IncrementalDAGSP sp = new IncrementalDAGSP(CsrGraph.of(g), new int[]{0, 4, 5, 1, 2, 3}, 0, false, new Metrics());
+        assertEquals(3, sp.getDistance(3));
+
+        assertEquals(2, sp.setEdge(1, 2, 5), "Only 2 and 3 are re-evaluated");
+        assertEquals(7, sp.getDistance(3));
+        assertEquals(2, sp.getDistance(5));
+
+        assertEquals(1, sp.setEdge(4, 5, 1), "Unchanged weight stops at 5");
+        assertEquals(List.of(0, 1, 2, 3), sp.pathTo(3));
+    }
+
+    @Test
+    public void testBackwardEdgeReordersAndCycleIsRejected() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(2, 3, 1);
+        IncrementalDAGSP sp = new IncrementalDAGSP(CsrGraph.of(g), new int[]{0, 2, 3, 1}, 0, true, new Metrics());
+
+        sp.setEdge(1, 2, 4);            // 1 comes after 2 in the order
+        assertTrue(sp.getLastReordered() > 0);
+        assertEquals(6, sp.getDistance(3));
+        assertTrue(isTopological(sp.toCsr(), sp.getTopoOrder()));
+
+        assertThrows(IllegalArgumentException.class, () -> sp.setEdge(3, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> sp.setEdge(2, 2, 1));
+        assertEquals(3, sp.toCsr().getNumEdges(), "Rejected edges are not added");
+    }
+
+    @Test
+    public void testRemovalMakesUnreachable() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 2);
+        g.addEdge(1, 2, 2);
+        IncrementalDAGSP sp = new IncrementalDAGSP(CsrGraph.of(g), new int[]{0, 1, 2}, 0, false, new Metrics());
+        sp.removeEdge(0, 1);
+        assertEquals(Integer.MAX_VALUE, sp.getDistance(1));
+        assertEquals(Integer.MAX_VALUE, sp.getDistance(2));
+        assertEquals(List.of(), sp.pathTo(2));
+        assertThrows(IllegalArgumentException.class, () -> sp.removeEdge(0, 1));
+    }
+
+    @Test
+    public void testRandomUpdatesMatchFullRecomputation() {
+        Random r = new Random(11);
+        for (boolean longest : new boolean[]{false, true}) {
+            CsrGraph dag = DatasetGenerator.generateSparse(800, 3, 0.0, 12).toCsr();
+            int[] order = new TopoSort(dag, new Metrics()).dfs().order;
+            int source = order[0];
+            IncrementalDAGSP sp = new IncrementalDAGSP(dag, order, source, longest, new Metrics());
+
+            for (int step = 0; step < 300; step++) {
+                CsrGraph current = sp.toCsr();
+                int u = r.nextInt(current.getN());
+                int kind = r.nextInt(3);
+                if (kind == 0 && current.outDegree(u) > 0) {
+                    int v = current.target(current.begin(u) + r.nextInt(current.outDegree(u)));
+                    sp.setEdge(u, v, 1 + r.nextInt(20));
+                } else if (kind == 1 && current.outDegree(u) > 0) {
+                    sp.removeEdge(u, current.target(current.begin(u) + r.nextInt(current.outDegree(u))));
+                } else {
+                    int v = r.nextInt(current.getN());
+                    try {
+                        sp.setEdge(u, v, 1 + r.nextInt(20));
+                    } catch (IllegalArgumentException cycle) {
+                        // expected for some random edges
+                    }
+                }
+
+                CsrGraph updated = sp.toCsr();
+                assertTrue(isTopological(updated, sp.getTopoOrder()), "Order valid after step " + step);
+                DAGSP full = new DAGSP(updated, new Metrics());
+                int[] expected = longest ? full.longestPaths(source, sp.getTopoOrder())
+                        : full.shortestPaths(source, sp.getTopoOrder());
+                assertArrayEquals(expected, sp.getDistances(), "Step " + step);
+            }
+            assertTrue(sp.getTotalTouched() < 300L * dag.getN());
+        }
+    }
+
+    @Test
+    public void testHighDegreeUpdatesMatchFullRecomputation() {
+        // Hub 0 -> 1..k -> sink: every update hits an adjacency of k edges
+        int k = 2000;
+        int sink = k + 1;
+        EdgeList edges = new EdgeList();
+        for (int v = 1; v <= k; v++) {
+            edges.add(0, v, v);
+            edges.add(0, v, v + 1);     // parallel edge, merged into the shorter one
+            edges.add(v, sink, k - v);
+        }
+        CsrGraph dag = edges.toCsr(sink + 1);
+        int[] order = new TopoSort(dag, new Metrics()).kahn().order;
+        IncrementalDAGSP sp = new IncrementalDAGSP(dag, order, 0, false, new Metrics());
+        assertEquals(2 * k, sp.toCsr().getNumEdges());
+
+        Random r = new Random(5);
+        for (int step = 0; step < 500; step++) {
+            int v = 1 + r.nextInt(k);
+            int kind = r.nextInt(3);
+            if (kind == 0) {
+                sp.setEdge(0, v, r.nextInt(3 * k));
+            } else if (kind == 1) {
+                sp.setEdge(v, sink, r.nextInt(3 * k));
+            } else {
+                try {
+                    sp.removeEdge(0, v);
+                } catch (IllegalArgumentException missing) {
+                    sp.setEdge(0, v, r.nextInt(3 * k));
+                }
+            }
+        }
+        CsrGraph updated = sp.toCsr();
+        int[] expected = new DAGSP(updated, new Metrics()).shortestPaths(0, sp.getTopoOrder());
+        assertArrayEquals(expected, sp.getDistances());
+    }
+
+    private static boolean isTopological(CsrGraph g, int[] order) {
+        int[] position = new int[g.getN()];
+        for (int i = 0; i < order.length; i++) position[order[i]] = i;
+        for (int u = 0; u < g.getN(); u++) {
+            for (int i = g.begin(u); i < g.end(u); i++) {
+                if (position[u] >= position[g.target(i)]) return false;
+            }
+        }
+        return true;
+    }
+}
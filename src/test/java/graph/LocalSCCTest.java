@@ -0,0 +1,119 @@
+package graph;
+
+import graph.dagsp.DAGSP;
+import graph.data.DatasetGenerator;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.Graph;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.LocalSCC;
+import graph.scc.TarjanSCC;
+import graph.util.IntIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalSCCTest {
+
+    @Test
+    public void testOnlyReachableRegion() {
+        // 0 -> {1, 2} cycle -> 3; 4 -> 5 cycle is not reachable from 0
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 2);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 1, 1);
+        g.addEdge(2, 3, 5);
+        g.addEdge(4, 5, 1);
+        g.addEdge(5, 4, 1);
+        g.addEdge(4, 0, 1);
+
+        LocalSCC.Region region = new LocalSCC(CsrGraph.of(g), new Metrics()).explore(0);
+        assertEquals(4, region.size());
+        assertEquals(3, region.scc.sccCount);
+        assertEquals(region.componentOf(1), region.componentOf(2));
+        assertNotEquals(region.componentOf(0), region.componentOf(1));
+        assertEquals(-1, region.componentOf(4));
+        assertEquals(-1, region.localId(5));
+        assertFalse(region.contains(4));
+        assertEquals(4, region.subgraph.getNumEdges());
+
+        // Condensation edges have weight 1: distances count components
+        int[] dist = region.componentDistances(0, false, new Metrics());
+        assertEquals(0, dist[region.componentOf(0)]);
+        assertEquals(1, dist[region.componentOf(1)]);
+        assertEquals(2, dist[region.componentOf(3)]);
+    }
+
+    @Test
+    public void testMatchesFullTarjan() {
+        CsrGraph g = DatasetGenerator.generateSparse(20000, 2, 0.1, 11).toCsr();
+        TarjanSCC.Result full = new IterativeTarjanSCC(g, new Metrics()).findSCCs();
+        Random random = new Random(3);
+        for (int trial = 0; trial < 5; trial++) {
+            int[] seeds = {random.nextInt(g.getN()), random.nextInt(g.getN())};
+            LocalSCC.Region region = new LocalSCC(CompressedGraph.of(g), new Metrics()).explore(seeds);
+
+            // Same partition on the region: components map one-to-one
+            Map<Integer, Integer> localToFull = new HashMap<>();
+            for (int v : region.vertices) {
+                Integer previous = localToFull.putIfAbsent(region.componentOf(v), full.sccMap[v]);
+                if (previous != null) assertEquals(previous.intValue(), full.sccMap[v]);
+            }
+            assertEquals(region.scc.sccCount, localToFull.size());
+            for (int c = 0; c < region.scc.sccCount; c++) {
+                assertEquals(full.sccs.get(localToFull.get(c)).size(), region.scc.sccs.get(c).size());
+            }
+
+            // Region is closed under successors
+            for (int v : region.vertices) {
+                for (int i = g.begin(v); i < g.end(v); i++) {
+                    assertTrue(region.contains(g.target(i)));
+                }
+            }
+
+            // Condensation order is topological
+            int[] position = new int[region.scc.sccCount];
+            for (int i = 0; i < position.length; i++) position[region.scc.topoOrder[i]] = i;
+            CsrGraph dag = CsrGraph.of(region.scc.condensation);
+            for (int c = 0; c < dag.getN(); c++) {
+                for (int i = dag.begin(c); i < dag.end(c); i++) {
+                    assertTrue(position[c] < position[dag.target(i)]);
+                }
+            }
+
+            // Longest paths agree with DAGSP over the full condensation
+            int[] local = region.componentDistances(seeds[0], true, new Metrics());
+            int[] global = new DAGSP(full.condensation, new Metrics())
+                    .longestPaths(full.sccMap[seeds[0]], full.topoOrder);
+            for (int c = 0; c < local.length; c++) {
+                assertEquals(global[localToFull.get(c)], local[c]);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidSeed() {
+        CsrGraph g = CsrGraph.of(new Graph(3));
+        assertThrows(IllegalArgumentException.class, () -> new LocalSCC(g, new Metrics()).explore(3));
+        LocalSCC.Region region = new LocalSCC(g, new Metrics()).explore(1);
+        assertThrows(IllegalArgumentException.class, () -> region.componentDistances(0, false, new Metrics()));
+    }
+
+    @Test
+    public void testIntIntHashMap() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        for (int k = 0; k < 1000; k++) map.put(k * 7919, k);
+        map.put(0, -5);
+        assertEquals(1000, map.size());
+        assertEquals(-5, map.get(0, -1));
+        assertEquals(999, map.get(999 * 7919, -1));
+        assertEquals(-1, map.get(1, -1));
+        assertFalse(map.containsKey(1));
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, 0));
+    }
+}
@@ -0,0 +1,153 @@
+package graph;
+
+import graph.cli.PipelineOptions;
+import graph.cli.StageReport;
+import graph.data.DatasetGenerator;
+import graph.data.EdgeListFormat;
+import graph.data.EdgeListWriter;
+import graph.data.GraphLoader;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.metrics.Footprint;
+import graph.metrics.MemoryBudget;
+import graph.metrics.Metrics;
+import graph.scc.Condensation;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static graph.PipelineRuns.runToJson;
+import static graph.PipelineRuns.stageNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryBudgetTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testFootprintEstimates() {
+        EdgeList edges = DatasetGenerator.generateSparse(5000, 4, 0.1, 3);
+        int n = edges.inferVertexCount();
+        Graph g = edges.toGraph(n);
+        CsrGraph csr = edges.toCsr(n);
+        CompressedGraph compressed = CompressedGraph.of(csr);
+
+        long hashSet = Footprint.of(g);
+        long estimate = Footprint.hashSetGraph(n, g.getNumEdges());
+        assertTrue(Math.abs(hashSet - estimate) < hashSet / 5, hashSet + " vs estimate " + estimate);
+        assertEquals(Footprint.csr(n, csr.getNumEdges()), Footprint.of(csr));
+        assertTrue(Footprint.of(csr) * 4 < hashSet);
+        assertTrue(Footprint.of(compressed) < Footprint.of(csr));
+        assertTrue(Footprint.of(compressed) <= Footprint.compressed(n, csr.getNumEdges()));
+
+        TarjanSCC.Result scc = new IterativeTarjanSCC(csr, new Metrics()).findComponents();
+        assertTrue(Footprint.of(scc) > 2 * Footprint.of(scc.sccMap));
+        assertTrue(Footprint.of(scc) <= Footprint.sccResult(n));
+        assertEquals("1.5 KB", Footprint.format(1536));
+    }
+
+    @Test
+    public void testReserveAndParse() {
+        assertEquals(512L << 20, MemoryBudget.parseSize("512m"));
+        assertEquals(2L << 30, MemoryBudget.parseSize("2G"));
+        assertEquals(1000, MemoryBudget.parseSize("1000"));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parseSize("lots"));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parseSize("-1k"));
+
+        MemoryBudget budget = new MemoryBudget(1000);
+        budget.reserve("a", 600);
+        assertFalse(budget.fits(500));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> budget.reserve("b", 500));
+        assertTrue(e.getMessage().contains("b needs"));
+        assertEquals(600, budget.getUsed());
+        budget.release(600);
+        budget.reserve("b", 500);
+        assertEquals(500, budget.remaining());
+    }
+
+    @Test
+    public void testBuildersFailBeforeAllocating() throws IOException {
+        EdgeList edges = DatasetGenerator.generateSparse(2000, 3, 0.1, 5);
+        int n = edges.inferVertexCount();
+        MemoryBudget small = new MemoryBudget(Footprint.csr(n, edges.size()) + 100);
+        assertThrows(IllegalStateException.class, () -> edges.toGraph(n, small));
+        assertEquals(0, small.getUsed());
+        CsrGraph csr = edges.toCsr(n, small);
+        assertEquals(Footprint.of(csr), small.getUsed());
+        assertThrows(IllegalStateException.class, () -> CompressedGraph.of(csr, small));
+
+        Path file = dir.resolve("g.txt");
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.TEXT)) {
+            w.writeAll(edges);
+        }
+        assertThrows(IllegalStateException.class,
+                () -> GraphLoader.load(file, "auto", 1, new MemoryBudget(Footprint.edgeList(edges.size()) / 2)));
+        MemoryBudget enough = new MemoryBudget(4 * Footprint.edgeList(edges.size()));
+        EdgeList loaded = GraphLoader.load(file, "auto", 1, enough);
+        assertEquals(edges.size(), loaded.size());
+        assertEquals(Footprint.of(loaded), enough.getUsed());
+    }
+
+    @Test
+    public void testDirectCsrCondensation() {
+        CsrGraph g = DatasetGenerator.generateSparse(3000, 3, 0.3, 8).toCsr();
+        TarjanSCC.Result scc = new IterativeTarjanSCC(g, new Metrics()).findComponents();
+        Graph expected = Condensation.build(g, scc.sccMap, scc.sccCount);
+        CsrGraph dag = Condensation.buildCsr(g, scc.sccMap, scc.sccCount);
+        assertEquals(expected.getNumEdges(), dag.getNumEdges());
+        for (int c = 0; c < scc.sccCount; c++) {
+            assertEquals(expected.getNeighbors(c).size(), dag.outDegree(c));
+        }
+    }
+
+    @Test
+    public void testPipelineWithinBudget() throws IOException {
+        Path file = dir.resolve("big.txt");
+        EdgeList edges = DatasetGenerator.generateSparse(20000, 1, 0.05, 4);
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.TEXT)) {
+            w.writeAll(edges);
+        }
+        int n = edges.inferVertexCount();
+
+        // Far too small: fails while estimating the load, before parsing
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> run(new ArrayList<>(), file, "--memory=64k"));
+        assertTrue(e.getMessage().contains("edge list"), e.getMessage());
+
+        // Room for the CSR graph, the SCC stage and the DAG, but not for adjacency sets
+        long csr = Footprint.csr(n, edges.size());
+        long scc = Footprint.iterativeScc(n, 1) + Footprint.sccResult(n);
+        long fitsCsr = Footprint.edgeList(edges.size()) + 2 * csr + scc + Footprint.distances(n, 1);
+        assertTrue(fitsCsr < Footprint.hashSetGraph(n, edges.size()));
+        List<StageReport> reports = new ArrayList<>();
+        run(reports, file, "--memory=" + fitsCsr);
+        assertEquals(List.of("load", "build-csr", "scc", "condense", "sp"), stageNames(reports));
+        assertEquals("iterative", reports.get(2).variant);
+        assertEquals("direct-csr", reports.get(3).variant);
+
+        // The CSR graph leaves too little room for the SCC stage: compressed instead
+        reports.clear();
+        run(reports, file, "--memory=" + (csr + scc - 1));
+        assertEquals(List.of("load", "build-csr", "compress", "scc", "condense", "sp"), stageNames(reports));
+    }
+
+    private void run(List<StageReport> reports, Path input, String memory) throws IOException {
+        reports.addAll(runToJson(dir.resolve("out.json"), input.toString(), "--stages=scc,sp", memory));
+    }
+
+    @Test
+    public void testMemoryOptionParsed() {
+        assertEquals(64L << 20, PipelineOptions.parse(new String[]{"--memory=64m"}).memory);
+        assertEquals(-1, PipelineOptions.parse(new String[0]).memory);
+        assertThrows(IllegalArgumentException.class, () -> PipelineOptions.parse(new String[]{"--memory=big"}));
+    }
+}
@@ -0,0 +1,71 @@
+package graph;
+
+import graph.dagsp.DAGSP;
+import graph.data.DatasetGenerator;
+import graph.graph.CsrGraph;
+import graph.metrics.Metrics;
+import graph.metrics.PhaseEvent;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopoSort;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseEventTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testPhasesAreRecorded() throws IOException {
+        CsrGraph g = DatasetGenerator.generateSparse(2000, 3, 0.1, 4).toCsr();
+        Path file = dir.resolve("phases.jfr");
+        Metrics dfsMetrics = new Metrics();
+        try (Recording recording = new Recording()) {
+            recording.enable(PhaseEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            TarjanSCC.Result scc = new IterativeTarjanSCC(g, dfsMetrics).findSCCs();
+            CsrGraph dag = CsrGraph.of(scc.condensation);
+            new TopoSort(dag, new Metrics()).kahn();
+            new DAGSP(dag, new Metrics()).longestPaths(scc.topoOrder[0], scc.topoOrder);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<String> phases = new ArrayList<>();
+        for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+            if (!e.getEventType().getName().equals("graph.Phase")) continue;
+            String phase = e.getString("phase") + "/" + e.getString("variant");
+            phases.add(phase);
+            if (phase.equals("tarjan-scc/iterative")) {
+                assertEquals(g.getN(), e.getInt("vertices"));
+                assertEquals(g.getNumEdges(), e.getLong("edges"));
+                assertEquals(dfsMetrics.getCounter(), e.getLong("counter"));
+            }
+        }
+        assertTrue(phases.containsAll(List.of("tarjan-scc/iterative", "condensation/primitive",
+                "topo-sort/kahn", "dagsp/longest")), phases.toString());
+    }
+
+    @Test
+    public void testMetricsWithoutRecording() {
+        Metrics m = new Metrics();
+        m.start("phase", "variant", 1, 1);
+        m.incrementCounter("Work", 3);
+        m.setPhaseSize(2, 2);
+        m.stop();
+        assertEquals(3, m.getCounter());
+        assertTrue(m.getElapsedTime() >= 0);
+    }
+}
@@ -0,0 +1,46 @@
+package graph;
+
+import graph.cli.Pipeline;
+import graph.cli.PipelineOptions;
+import graph.cli.StageReport;
+import graph.output.JsonResultWriter;
+import graph.output.SummaryResultWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the pipeline from tests with the log discarded.
+ */
+final class PipelineRuns {
+
+    private PipelineRuns() {
+    }
+
+    /**
+     * Runs with a summary writer whose output is discarded.
+     */
+    static List<StageReport> run(String... args) throws IOException {
+        PrintStream sink = new PrintStream(new ByteArrayOutputStream());
+        return new Pipeline(PipelineOptions.parse(args), new SummaryResultWriter(sink), sink).run();
+    }
+
+    /**
+     * Runs with the results written as JSON to out.
+     */
+    static List<StageReport> runToJson(Path out, String... args) throws IOException {
+        try (JsonResultWriter writer = JsonResultWriter.open(out)) {
+            return new Pipeline(PipelineOptions.parse(args), writer, new PrintStream(new ByteArrayOutputStream())).run();
+        }
+    }
+
+    static List<String> stageNames(List<StageReport> reports) {
+        List<String> names = new ArrayList<>();
+        for (StageReport r : reports) names.add(r.stage);
+        return names;
+    }
+}
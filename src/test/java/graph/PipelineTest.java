@@ -0,0 +1,91 @@
+package graph;
+
+import graph.cli.Pipeline;
+import graph.cli.PipelineOptions;
+import graph.cli.StageReport;
+import graph.output.SummaryResultWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static graph.PipelineRuns.run;
+import static graph.PipelineRuns.stageNames;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSelectedStagesWithDependencies() throws IOException {
+        Path file = dir.resolve("g.txt");
+        Files.writeString(file, "0 1 2\n1 0 3\n1 2 4\n2 3 1\n");
+
+        List<StageReport> reports = run(file.toString(), "--stages=scc,sp", "--scc=iterative", "--repeat=2");
+
+        assertEquals(List.of("load", "build-csr", "scc", "condense", "sp"), stageNames(reports),
+                "Tarjan's order replaces the topo stage");
+        assertEquals(2, reports.get(2).runs);
+        assertEquals("iterative", reports.get(2).variant);
+    }
+
+    @Test
+    public void testParallelSources() throws IOException {
+        Path file = dir.resolve("dag.ndjson");
+        Files.writeString(file, "{\"u\":0,\"v\":1,\"w\":2}\n{\"u\":1,\"v\":2,\"w\":2}\n{\"u\":0,\"v\":2,\"w\":9}\n");
+
+        List<StageReport> reports = run(file.toString(), "--stages=topo,sp,lp",
+                "--paths=parallel", "--sources=0,1", "--threads=2");
+
+        assertEquals(List.of("load", "build-csr", "topo", "sp", "lp"), stageNames(reports));
+        assertTrue(reports.get(3).counter > 0, "Relaxations of all sources are counted");
+    }
+
+    @Test
+    public void testExplicitTopoVariantAfterScc() throws IOException {
+        Path file = dir.resolve("g.txt");
+        Files.writeString(file, "0 1 2\n1 0 3\n1 2 4\n");
+
+        List<StageReport> reports = run(file.toString(), "--stages=scc,topo,lp", "--topo=dfs");
+
+        assertEquals(List.of("load", "build-graph", "scc", "condense", "topo", "lp"), stageNames(reports));
+    }
+
+    @Test
+    public void testTopoOnCyclicInputFails() throws IOException {
+        Path file = dir.resolve("cycle.txt");
+        Files.writeString(file, "0 1\n1 0\n");
+        assertThrows(IllegalStateException.class, () -> run(file.toString(), "--stages=topo"));
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> PipelineOptions.parse(new String[]{"--scc=magic"}));
+        assertThrows(IllegalArgumentException.class, () -> PipelineOptions.parse(new String[]{"--stages=foo"}));
+        assertThrows(IllegalArgumentException.class, () -> PipelineOptions.parse(new String[]{"--repeat=0"}));
+    }
+
+    @Test
+    public void testSourcesAreInputVerticesAfterScc() throws IOException {
+        // Tarjan numbers the sink 3 as component 0; --sources=0 still means vertex 0
+        Path file = dir.resolve("chain.txt");
+        Files.writeString(file, "0 1\n1 2\n2 3\n");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes);
+        new Pipeline(PipelineOptions.parse(new String[]{file.toString(), "--stages=scc,sp", "--sources=0"}),
+                new SummaryResultWriter(out), out).run();
+        assertTrue(bytes.toString().contains("reachable = 4/4"), bytes.toString());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> run(file.toString(), "--stages=scc,sp", "--sources=4"));
+    }
+}
@@ -0,0 +1,92 @@
+package graph;
+
+import graph.data.DatasetGenerator;
+import graph.data.EdgeListFormat;
+import graph.data.EdgeListWriter;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.metrics.Metrics;
+import graph.relabel.Relabeling;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RelabelingTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testOrdersArePermutations() {
+        CsrGraph g = DatasetGenerator.generateSparse(500, 3, 0.0, 1).toCsr();
+        for (String name : new String[]{"bfs", "rcm", "degree", "topo"}) {
+            Relabeling r = Relabeling.byName(name, g);
+            CsrGraph relabeled = r.apply(g);
+
+            assertEquals(g.getNumEdges(), relabeled.getNumEdges());
+            for (int v = 0; v < g.getN(); v++) {
+                assertEquals(v, r.toOriginal(r.toNew(v)));
+                assertEquals(g.outDegree(r.toOriginal(v)), relabeled.outDegree(v));
+            }
+        }
+    }
+
+    @Test
+    public void testTopologicalRelabelingNeedsDag() {
+        CsrGraph cyclic = DatasetGenerator.generateSparse(200, 3, 0.3, 2).toCsr();
+        assertThrows(IllegalArgumentException.class, () -> Relabeling.topological(cyclic));
+    }
+
+    @Test
+    public void testSccMappedBackToOriginalIds() {
+        CsrGraph g = DatasetGenerator.generateSparse(1000, 3, 0.2, 3).toCsr();
+        Relabeling r = Relabeling.reverseCuthillMcKee(g);
+
+        TarjanSCC.Result direct = new IterativeTarjanSCC(g, new Metrics()).findSCCs();
+        TarjanSCC.Result mapped = r.toOriginal(new IterativeTarjanSCC(r.apply(g), new Metrics()).findSCCs());
+
+        assertEquals(direct.sccCount, mapped.sccCount);
+        for (int u = 0; u < g.getN(); u++) {
+            for (int i = g.begin(u); i < g.end(u); i++) {
+                int v = g.target(i);
+                assertEquals(direct.sccMap[u] == direct.sccMap[v], mapped.sccMap[u] == mapped.sccMap[v],
+                        "Same partition into components");
+            }
+        }
+    }
+
+    @Test
+    public void testPipelineOutputUnchangedByRelabeling() throws IOException {
+        EdgeList edges = DatasetGenerator.generateSparse(300, 3, 0.0, 4);
+        Path file = dir.resolve("dag.txt");
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.TEXT)) {
+            w.writeAll(edges);
+        }
+        int source = edges.getFrom(0);
+
+        String plain = runToJson(file, "none", source);
+        for (String name : new String[]{"bfs", "rcm", "degree", "topo"}) {
+            String relabeled = runToJson(file, name, source);
+            assertEquals(distances(plain), distances(relabeled), "Distances with --relabel=" + name);
+        }
+    }
+
+    private String runToJson(Path input, String relabel, int source) throws IOException {
+        Path out = dir.resolve("out-" + relabel + ".json");
+        PipelineRuns.runToJson(out, input.toString(), "--stages=sp,lp", "--relabel=" + relabel,
+                "--sources=" + source);
+        return Files.readString(out);
+    }
+
+    private static String distances(String json) {
+        return json.substring(json.indexOf("\"shortest\""));
+    }
+}
@@ -0,0 +1,80 @@
+package graph;
+
+import graph.graph.Graph;
+import graph.metrics.Metrics;
+import graph.output.BinaryResultReader;
+import graph.output.BinaryResultWriter;
+import graph.output.JsonResultWriter;
+import graph.output.ResultWriter;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResultWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private TarjanSCC.Result sampleScc() {
+        Graph g = new Graph(4);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        return new TarjanSCC(g, new Metrics()).findSCCs();
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        Path file = dir.resolve("out.bin");
+        TarjanSCC.Result scc = sampleScc();
+        int[] dist = {0, 4, Integer.MAX_VALUE};
+
+        try (ResultWriter out = BinaryResultWriter.open(file)) {
+            out.writeGraphInfo(4, 4);
+            out.writeScc(scc);
+            out.writeOrder("topoOrder", List.of(2, 1, 0));
+            out.writeDistances("shortest", 0, dist);
+        }
+
+        try (BinaryResultReader in = BinaryResultReader.open(file)) {
+            assertTrue(in.next());
+            assertArrayEquals(new int[]{4, 4}, in.getValues());
+            assertTrue(in.next());
+            assertEquals(BinaryResultWriter.SCC_MAP, in.getTag());
+            assertEquals(scc.sccCount, in.getSource());
+            assertArrayEquals(scc.sccMap, in.getValues());
+            assertTrue(in.next());
+            assertEquals("topoOrder", in.getLabel());
+            assertArrayEquals(new int[]{2, 1, 0}, in.getValues());
+            assertTrue(in.next());
+            assertEquals(BinaryResultWriter.DISTANCES, in.getTag());
+            assertArrayEquals(dist, in.getValues());
+            assertFalse(in.next());
+        }
+    }
+
+    @Test
+    public void testStreamingJson() throws IOException {
+        Path file = dir.resolve("out.json");
+        try (ResultWriter out = JsonResultWriter.open(file)) {
+            out.writeGraphInfo(3, 2);
+            out.writeOrder("criticalPath", List.of(0, 2));
+            out.writeDistances("longest", 0, new int[]{0, Integer.MIN_VALUE, -7});
+        }
+        String json = Files.readString(file).replace("\n", "");
+
+        assertEquals("{\"graph\":{\"n\":3,\"edges\":2},\"criticalPath\":[0,2],"
+                + "\"longest\":{\"source\":0,\"dist\":[0,null,-7]}}", json);
+    }
+}
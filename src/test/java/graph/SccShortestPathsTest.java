@@ -0,0 +1,98 @@
+package graph;
+
+import graph.cli.StageReport;
+import graph.dagsp.SccShortestPaths;
+import graph.data.DatasetGenerator;
+import graph.data.EdgeListFormat;
+import graph.data.EdgeListWriter;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.EdgeList;
+import graph.graph.Graph;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SccShortestPathsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testShortcutThroughCycle() {
+        // 0 -> 1 -> 2 -> 1 is a cycle; the best way to 3 goes around it
+        Graph g = new Graph(5);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 1, 1);
+        g.addEdge(1, 3, 10);
+        g.addEdge(2, 3, 2);
+        g.addEdge(3, 3, 0);
+        CsrGraph csr = CsrGraph.of(g);
+        TarjanSCC.Result scc = new TarjanSCC(g, new Metrics()).findComponents();
+
+        int[] dist = new SccShortestPaths(csr, scc, new Metrics()).distances(0);
+        assertArrayEquals(new int[]{0, 1, 2, 4, Integer.MAX_VALUE}, dist);
+        assertArrayEquals(SccShortestPaths.dijkstra(csr, 0, new Metrics()), dist);
+    }
+
+    @Test
+    public void testMatchesDijkstra() {
+        for (double backEdges : new double[]{0.0, 0.05, 0.3}) {
+            CsrGraph g = DatasetGenerator.generateSparse(4000, 3, backEdges, 7).toCsr();
+            TarjanSCC.Result scc = new IterativeTarjanSCC(g, new Metrics()).findComponents();
+            SccShortestPaths solver = new SccShortestPaths(g, scc, new Metrics());
+            CompressedGraph compressed = CompressedGraph.of(g);
+            SccShortestPaths onCompressed = new SccShortestPaths(compressed,
+                    new IterativeTarjanSCC(compressed, new Metrics()).findComponents(), new Metrics());
+            for (int source : new int[]{0, 17, 3999}) {
+                int[] expected = SccShortestPaths.dijkstra(g, source, new Metrics());
+                assertArrayEquals(expected, solver.distances(source), "back edges " + backEdges + ", source " + source);
+                assertArrayEquals(expected, onCompressed.distances(source));
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeWeightRejected() {
+        Graph g = new Graph(2);
+        g.addEdge(0, 1, -1);
+        CsrGraph csr = CsrGraph.of(g);
+        TarjanSCC.Result scc = new TarjanSCC(g, new Metrics()).findComponents();
+        assertThrows(IllegalArgumentException.class, () -> new SccShortestPaths(csr, scc, new Metrics()).distances(0));
+        assertThrows(IllegalArgumentException.class, () -> SccShortestPaths.dijkstra(csr, 0, new Metrics()));
+    }
+
+    @Test
+    public void testPipelineStage() throws IOException {
+        EdgeList edges = DatasetGenerator.generateSparse(300, 3, 0.1, 8);
+        Path file = dir.resolve("graph.txt");
+        try (EdgeListWriter w = EdgeListWriter.open(file, EdgeListFormat.TEXT)) {
+            w.writeAll(edges);
+        }
+        String hybrid = runToJson(file, "hybrid", "--relabel=bfs");
+        String dijkstra = runToJson(file, "dijkstra");
+        assertEquals(dijkstra.substring(dijkstra.indexOf("\"distances\"")), hybrid.substring(hybrid.indexOf("\"distances\"")));
+    }
+
+    private String runToJson(Path input, String variant, String... extra) throws IOException {
+        Path out = dir.resolve("out-" + variant + ".json");
+        String[] args = new String[3 + extra.length];
+        args[0] = input.toString();
+        args[1] = "--stages=sssp";
+        args[2] = "--sssp=" + variant;
+        System.arraycopy(extra, 0, args, 3, extra.length);
+        List<StageReport> reports = PipelineRuns.runToJson(out, args);
+        assertEquals(variant, reports.get(reports.size() - 1).variant);
+        return Files.readString(out);
+    }
+}
@@ -0,0 +1,92 @@
+package graph;
+
+import graph.data.DatasetGenerator;
+import graph.graph.CompressedGraph;
+import graph.graph.CsrGraph;
+import graph.graph.Edge;
+import graph.graph.EdgeList;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.ShardedSCC;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedSCCTest {
+
+    @Test
+    public void testMatchesTarjan() throws IOException {
+        CsrGraph g = DatasetGenerator.generateSparse(3000, 3, 0.2, 11).toCsr();
+        TarjanSCC.Result expected = new IterativeTarjanSCC(g, new Metrics()).findComponents();
+        for (int workers : new int[]{1, 2, 3}) {
+            TarjanSCC.Result sharded = new ShardedSCC(g, workers, new Metrics()).findSCCs();
+            assertSamePartition(expected, sharded);
+            assertTopologicalOrder(sharded);
+        }
+    }
+
+    @Test
+    public void testCyclesAcrossShards() throws IOException {
+        // Two cycles that each span every shard, joined by one edge
+        EdgeList edges = new EdgeList();
+        int n = 40;
+        for (int v = 0; v < n; v += 2) edges.add(v, (v + 2) % n, 1);
+        for (int v = 1; v < n; v += 2) edges.add(v, (v + 2) % n, 1);
+        edges.add(0, 1, 1);
+        CompressedGraph g = CompressedGraph.of(edges, n);
+
+        TarjanSCC.Result result = new ShardedSCC(g, 4, new Metrics()).findSCCs();
+        assertEquals(2, result.sccCount);
+        assertEquals(1, result.condensation.getNumEdges());
+        assertEquals(result.sccMap[0], result.sccMap[n - 2]);
+        assertNotEquals(result.sccMap[0], result.sccMap[1]);
+        assertEquals(result.sccMap[0], result.topoOrder[0], "Even cycle reaches the odd one");
+        assertEquals(List.of(1, 3, 5), result.sccs.get(result.sccMap[1]).subList(0, 3));
+    }
+
+    @Test
+    public void testSmallGraphs() throws IOException {
+        TarjanSCC.Result empty = new ShardedSCC(new EdgeList().toCsr(0), 2, new Metrics()).findSCCs();
+        assertEquals(0, empty.sccCount);
+        TarjanSCC.Result single = new ShardedSCC(new EdgeList().toCsr(1), 3, new Metrics()).findComponents();
+        assertEquals(1, single.sccCount);
+        assertNull(single.condensation);
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSCC(new EdgeList().toCsr(1), 0, new Metrics()));
+    }
+
+    @Test
+    public void testWorkerHeap() throws IOException {
+        CsrGraph g = DatasetGenerator.generateSparse(500, 3, 0.2, 3).toCsr();
+        TarjanSCC.Result expected = new IterativeTarjanSCC(g, new Metrics()).findComponents();
+        assertSamePartition(expected, new ShardedSCC(g, 2, 32L << 20, new Metrics()).findComponents());
+        // A heap the JVM cannot start with shows that -Xmx reaches the workers
+        assertThrows(IOException.class, () -> new ShardedSCC(g, 2, 1, new Metrics()).findComponents());
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSCC(g, 2, 0, new Metrics()));
+    }
+
+    private static void assertSamePartition(TarjanSCC.Result expected, TarjanSCC.Result actual) {
+        assertEquals(expected.sccCount, actual.sccCount);
+        int[] toActual = new int[expected.sccCount];
+        Arrays.fill(toActual, -1);
+        for (int v = 0; v < expected.sccMap.length; v++) {
+            int e = expected.sccMap[v];
+            if (toActual[e] < 0) toActual[e] = actual.sccMap[v];
+            assertEquals(toActual[e], actual.sccMap[v], "vertex " + v);
+        }
+    }
+
+    private static void assertTopologicalOrder(TarjanSCC.Result result) {
+        int[] position = new int[result.sccCount];
+        for (int i = 0; i < result.sccCount; i++) position[result.topoOrder[i]] = i;
+        for (int c = 0; c < result.sccCount; c++) {
+            for (Edge e : result.condensation.getNeighbors(c)) {
+                assertTrue(position[c] < position[e.getTo()], c + " -> " + e.getTo());
+            }
+        }
+    }
+}
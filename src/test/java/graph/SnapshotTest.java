@@ -0,0 +1,195 @@
+package graph;
+
+import graph.cli.PipelineOptions;
+import graph.cli.StageReport;
+import graph.data.DatasetGenerator;
+import graph.data.EdgeListFormat;
+import graph.data.EdgeListWriter;
+import graph.data.Snapshot;
+import graph.graph.CsrGraph;
+import graph.graph.MappedCsrGraph;
+import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.TopoSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static graph.PipelineRuns.runToJson;
+import static graph.PipelineRuns.stageNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        CsrGraph g = DatasetGenerator.generateSparse(3000, 3, 0.2, 5).toCsr();
+        TarjanSCC.Result found = new IterativeTarjanSCC(g, new Metrics()).findSCCs();
+        // Any topological order is saved and restored as is, not recomputed
+        int[] order = new TopoSort(found.condensation, new Metrics()).kahn().order;
+        TarjanSCC.Result scc = new TarjanSCC.Result(found.sccs, found.sccMap, found.sccCount,
+                found.condensation, order, found.metrics);
+        Path input = dir.resolve("g.txt");
+        Files.writeString(input, "input");
+        byte[] hash = Snapshot.hashFile(input);
+        int[] dist = {0, 3, Integer.MAX_VALUE};
+        Path file = dir.resolve("g.snap");
+        Snapshot.write(file, hash, g, scc, CsrGraph.of(scc.condensation), Map.of("graph/distances@0", dist));
+
+        Snapshot s = Snapshot.open(file);
+        assertTrue(s.isFresh(hash));
+        MappedCsrGraph mapped = s.graph();
+        assertEquals(g.getN(), mapped.getN());
+        assertEquals(g.getNumEdges(), mapped.getNumEdges());
+        CsrGraph copy = mapped.toCsr();
+        for (int u = 0; u < g.getN(); u++) {
+            assertEquals(g.outDegree(u), mapped.outDegree(u));
+            for (int i = g.begin(u); i < g.end(u); i++) {
+                assertEquals(g.target(i), copy.target(i));
+                assertEquals(g.weight(i), copy.weight(i));
+            }
+        }
+
+        // Algorithms run directly on the mapping
+        TarjanSCC.Result again = new IterativeTarjanSCC(mapped, new Metrics()).findComponents();
+        assertArrayEquals(scc.sccMap, again.sccMap);
+
+        TarjanSCC.Result restored = s.toSccResult(new Metrics());
+        assertArrayEquals(scc.sccMap, restored.sccMap);
+        assertEquals(scc.sccs, restored.sccs);
+        assertNull(restored.condensation, "The DAG stays in the mapping");
+        assertArrayEquals(order, s.topoOrder());
+        assertArrayEquals(order, restored.topoOrder);
+        assertEquals(scc.condensation.getNumEdges(), s.condensation().getNumEdges());
+        assertTrue(new TopoSort(s.condensation(), new Metrics()).kahn().isAcyclic());
+        assertEquals(scc.sccMap[42], s.componentOf(42));
+        assertArrayEquals(dist, s.distances("graph/distances@0"));
+        assertNull(s.distances("graph/distances@1"));
+    }
+
+    @Test
+    public void testCorruptionAndVersion() throws IOException {
+        Path input = dir.resolve("g.txt");
+        Files.writeString(input, "0 1 2\n");
+        Path file = dir.resolve("g.snap");
+        int[] dist = new int[1000];
+        Snapshot.write(file, Snapshot.hashFile(input), DatasetGenerator.generateSparse(50, 2, 0.1, 1).toCsr(),
+                null, null, Map.of("d", dist));
+        Snapshot s = Snapshot.open(file);
+        assertFalse(s.hasScc());
+        Files.writeString(input, "0 1 3\n");
+        assertFalse(s.isFresh(Snapshot.hashFile(input)), "Changed input makes the snapshot stale");
+
+        // Section checksums are checked on first use: a corrupt distance array leaves the graph usable
+        byte[] bytes = Files.readAllBytes(file);
+        int inDistances = bytes.length - 4 * dist.length / 2;
+        bytes[inDistances] ^= 1;
+        Files.write(file, bytes);
+        Snapshot damaged = Snapshot.open(file);
+        assertEquals(50, damaged.graph().getN());
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> damaged.distances("d"));
+        assertTrue(e.getMessage().contains("checksum"));
+
+        bytes[inDistances] ^= 1;
+        bytes[20] ^= 1;
+        Files.write(file, bytes);
+        IOException header = assertThrows(IOException.class, () -> Snapshot.open(file));
+        assertTrue(header.getMessage().contains("checksum"));
+
+        bytes[20] ^= 1;
+        bytes[4] = 99;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> Snapshot.open(file));
+    }
+
+    @Test
+    public void testWarmRestart() throws IOException {
+        Path input = dir.resolve("g.txt");
+        try (EdgeListWriter w = EdgeListWriter.open(input, EdgeListFormat.TEXT)) {
+            w.writeAll(DatasetGenerator.generateSparse(2000, 3, 0.1, 9));
+        }
+        Path snapshot = dir.resolve("g.snap");
+
+        List<StageReport> cold = new ArrayList<>();
+        String first = run(cold, input, snapshot, "--sources=0,1");
+        assertTrue(stageNames(cold).contains("load"));
+        assertTrue(stageNames(cold).contains("snapshot-save"));
+
+        List<StageReport> warm = new ArrayList<>();
+        String second = run(warm, input, snapshot, "--sources=0,1");
+        assertEquals(first, second);
+        assertEquals(List.of("hash-input", "snapshot", "scc"), stageNames(warm),
+                "Graph, SCC and distances come from the snapshot");
+        assertEquals("snapshot", warm.get(2).variant);
+
+        // A new source is computed once and added to the snapshot
+        List<StageReport> extended = new ArrayList<>();
+        run(extended, input, snapshot, "--sources=0,2");
+        assertTrue(stageNames(extended).contains("sp"));
+        assertTrue(stageNames(extended).contains("snapshot-save"));
+
+        // A changed input file invalidates the snapshot
+        Files.writeString(input, "0 1 1\n1 0 1\n", StandardOpenOption.APPEND);
+        List<StageReport> stale = new ArrayList<>();
+        run(stale, input, snapshot, "--sources=0,1");
+        assertTrue(stageNames(stale).contains("load"));
+    }
+
+    @Test
+    public void testCorruptSectionsAreRecomputed() throws IOException {
+        Path input = dir.resolve("g.txt");
+        try (EdgeListWriter w = EdgeListWriter.open(input, EdgeListFormat.TEXT)) {
+            w.writeAll(DatasetGenerator.generateSparse(2000, 3, 0.1, 9));
+        }
+        Path snapshot = dir.resolve("g.snap");
+        String expected = run(new ArrayList<>(), input, snapshot, "--sources=0,1");
+
+        // The last distance array ends just before its checksum and the END tag
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 12] ^= 1;
+        Files.write(snapshot, bytes);
+        List<StageReport> distances = new ArrayList<>();
+        assertEquals(expected, run(distances, input, snapshot, "--sources=0,1"));
+        assertFalse(stageNames(distances).contains("load"), "Graph and SCC still come from the snapshot");
+        assertTrue(stageNames(distances).contains("snapshot-save"), "The recomputed array is saved again");
+        List<StageReport> repaired = new ArrayList<>();
+        assertEquals(expected, run(repaired, input, snapshot, "--sources=0,1"));
+        assertEquals(List.of("hash-input", "snapshot", "scc"), stageNames(repaired));
+
+        // The SCC map follows the header and the three graph sections
+        MappedCsrGraph g = Snapshot.open(snapshot).graph();
+        int sccMap = 44 + (20 + 4 * (g.getN() + 1)) + 2 * (20 + 4 * g.getNumEdges()) + 16;
+        bytes = Files.readAllBytes(snapshot);
+        bytes[sccMap + 8] ^= 1;
+        Files.write(snapshot, bytes);
+        List<StageReport> scc = new ArrayList<>();
+        assertEquals(expected, run(scc, input, snapshot, "--sources=0,1"));
+        assertTrue(stageNames(scc).contains("load"), "A corrupt SCC section discards the snapshot");
+        assertTrue(stageNames(scc).contains("snapshot-save"));
+    }
+
+    @Test
+    public void testSnapshotWithRelabelRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PipelineOptions.parse(new String[]{"--snapshot=x.snap", "--relabel=bfs"}));
+    }
+
+    private String run(List<StageReport> reports, Path input, Path snapshot, String sources) throws IOException {
+        Path out = dir.resolve("out.json");
+        reports.addAll(runToJson(out, input.toString(), "--stages=scc,sssp,sp,lp", "--scc=iterative",
+                "--snapshot=" + snapshot, sources));
+        return Files.readString(out);
+    }
+}
@@ -1,10 +1,16 @@
 package graph;
 
+import graph.data.DatasetGenerator;
+import graph.graph.CsrGraph;
+import graph.graph.Edge;
 import graph.graph.Graph;
 import graph.metrics.Metrics;
+import graph.scc.IterativeTarjanSCC;
 import graph.scc.TarjanSCC;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -71,4 +77,55 @@ public class TarjanSCCTest {
         assertEquals(1, result.sccs.get(0).size(), "SCC should contain the single vertex");
     }
 
+    @Test
+    public void testIterativeMatchesRecursive() {
+        Graph g = DatasetGenerator.generate(40, 0.08, true).toEdgeList().toGraph(40);
+
+        TarjanSCC.Result recursive = new TarjanSCC(g, new Metrics()).findSCCs();
+        TarjanSCC.Result iterative = new IterativeTarjanSCC(CsrGraph.of(g), new Metrics()).findSCCs();
+
+        assertEquals(recursive.sccCount, iterative.sccCount);
+        assertArrayEquals(recursive.sccMap, iterative.sccMap, "Same components in the same emission order");
+        assertEquals(recursive.condensation.getNumEdges(), iterative.condensation.getNumEdges());
+    }
+
+    @Test
+    public void testIterativeDeepPath() {
+        int n = 200_000;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n - 1];
+        for (int u = 0; u < n - 1; u++) {
+            offsets[u + 1] = u + 1;
+            targets[u] = u + 1;
+        }
+        offsets[n] = n - 1;
+        CsrGraph path = new CsrGraph(n, offsets, targets, new int[n - 1]);
+
+        TarjanSCC.Result result = new IterativeTarjanSCC(path, new Metrics()).findComponents();
+
+        assertEquals(n, result.sccCount, "Every vertex of a path is its own SCC");
+    }
+
+    @Test
+    public void testTopoOrderOfCondensation() {
+        Graph g = DatasetGenerator.generate(30, 0.1, true).toEdgeList().toGraph(30);
+        TarjanSCC.Result result = new TarjanSCC(g, new Metrics()).findSCCs();
+
+        int[] pos = new int[result.sccCount];
+        for (int i = 0; i < result.topoOrder.length; i++) pos[result.topoOrder[i]] = i;
+        for (int c = 0; c < result.sccCount; c++) {
+            for (Edge e : result.condensation.getNeighbors(c)) {
+                assertTrue(pos[c] < pos[e.getTo()], "Component " + c + " must precede " + e.getTo());
+            }
+        }
+    }
+
+    @Test
+    public void testSummaryWithoutCondensation() {
+        Graph g = new Graph(3);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        TarjanSCC.Result result = new TarjanSCC(g, new Metrics()).findComponents();
+        assertDoesNotThrow(result::printSummary);
+    }
 }
@@ -1,5 +1,6 @@
 package graph;
 
+import graph.graph.Edge;
 import graph.graph.Graph;
 import graph.metrics.Metrics;
 import graph.topo.TopoSort;
@@ -8,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TopoSortTest {
@@ -71,4 +74,69 @@ public class TopoSortTest {
         assertEquals(0, order.get(0), "Vertex 0 should be in the order");
     }
 
+    @Test
+    public void testDfsOrderRespectsEdges() {
+        Graph g = new Graph(6);
+        g.addEdge(5, 2, 1);
+        g.addEdge(5, 0, 1);
+        g.addEdge(4, 0, 1);
+        g.addEdge(4, 1, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 1, 1);
+
+        TopoSort.Result result = new TopoSort(g, new Metrics()).dfs();
+
+        assertTrue(result.isAcyclic());
+        assertNull(result.cycle);
+        assertEquals(6, result.order.length);
+        assertValidOrder(g, result.order);
+    }
+
+    @Test
+    public void testCycleWitnessKahnAndDfs() {
+        Graph g = new Graph(6);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 1, 1); // cycle 1 -> 2 -> 3 -> 1
+        g.addEdge(3, 4, 1);
+        g.addEdge(5, 0, 1);
+
+        TopoSort topo = new TopoSort(g, new Metrics());
+        for (TopoSort.Result result : List.of(topo.kahn(), topo.dfs())) {
+            assertFalse(result.isAcyclic());
+            assertEquals(0, result.order.length);
+            assertEquals(3, result.cycle.length, "Witness is the cycle 1 -> 2 -> 3");
+            assertIsCycle(g, result.cycle);
+        }
+    }
+
+    @Test
+    public void testSelfLoopWitness() {
+        Graph g = new Graph(2);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 1, 1);
+
+        TopoSort topo = new TopoSort(g, new Metrics());
+        assertEquals("1 -> 1", topo.kahn().describeCycle());
+        assertEquals("1 -> 1", topo.dfs().describeCycle());
+    }
+
+    private static void assertValidOrder(Graph g, int[] order) {
+        int[] pos = new int[g.getN()];
+        for (int i = 0; i < order.length; i++) pos[order[i]] = i;
+        for (int u = 0; u < g.getN(); u++) {
+            for (Edge e : g.getNeighbors(u)) {
+                assertTrue(pos[u] < pos[e.getTo()], u + " must appear before " + e.getTo());
+            }
+        }
+    }
+
+    private static void assertIsCycle(Graph g, int[] cycle) {
+        for (int i = 0; i < cycle.length; i++) {
+            int u = cycle[i];
+            int v = cycle[(i + 1) % cycle.length];
+            assertTrue(g.getNeighbors(u).stream().anyMatch(e -> e.getTo() == v), "Missing witness edge " + u + " -> " + v);
+        }
+    }
 }